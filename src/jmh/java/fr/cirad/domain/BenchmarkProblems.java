@@ -0,0 +1,50 @@
+package fr.cirad.domain;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Random;
+import java.util.UUID;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Problems shared by the benchmarks. The default problem is the test resource
+ * default-problem.json, which is on the jmh classpath.
+ */
+public final class BenchmarkProblems {
+
+    private BenchmarkProblems() {
+        // static helpers only
+    }
+
+    public static SolverOptions loadDefaultSolverOptions() {
+        var mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        try (var resource = BenchmarkProblems.class.getResourceAsStream("/default-problem.json")) {
+            return mapper.readValue(resource, SolverOptions.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Builds the solution and assigns every committee assignment and time slot at random, so
+     * that all the constraints have tuples to match.
+     */
+    public static CommitteeSolution randomlyAssigned(SolverOptions options, long seed) {
+        var random = new Random(seed);
+        var solution = new CommitteeSolution(UUID.randomUUID(), options);
+        for (var committee : solution.committees) {
+            if (!solution.timeSlots.isEmpty()) {
+                committee.timeSlot =
+                        solution.timeSlots.get(random.nextInt(solution.timeSlots.size()));
+            }
+        }
+        for (var assignment : solution.committeeAssignments) {
+            assignment.committee =
+                    solution.committees.get(random.nextInt(solution.committees.size()));
+            assignment.committee.assignments.add(assignment);
+        }
+        solution.committees.forEach(Committee::resetComposition);
+        return solution;
+    }
+}
@@ -0,0 +1,134 @@
+package fr.cirad.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Throughput of the Committee and Person predicates called by the constraints. Each invocation
+ * evaluates the predicate on the next element of a precomputed random sequence.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PredicateBenchmark {
+
+    // Power of two, so that the sequences wrap around with a mask
+    private static final int SEQUENCE_SIZE = 1 << 10;
+
+    private Person[] persons;
+    private Person[] others;
+    private Skill[] skills;
+    private TimeSlot[] timeSlots;
+    private Committee[] committees;
+    private CommitteeAssignment[] assignments;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var solution = BenchmarkProblems
+                .randomlyAssigned(BenchmarkProblems.loadDefaultSolverOptions(), 0L);
+        var random = new Random(0L);
+        List<Skill> allSkills = new ArrayList<>();
+        solution.persons.forEach(p -> allSkills.addAll(p.requiredSkills));
+
+        persons = new Person[SEQUENCE_SIZE];
+        others = new Person[SEQUENCE_SIZE];
+        skills = new Skill[SEQUENCE_SIZE];
+        timeSlots = new TimeSlot[SEQUENCE_SIZE];
+        committees = new Committee[SEQUENCE_SIZE];
+        assignments = new CommitteeAssignment[SEQUENCE_SIZE];
+        for (int i = 0; i < SEQUENCE_SIZE; i++) {
+            persons[i] = pick(solution.persons, random);
+            others[i] = pick(solution.persons, random);
+            skills[i] = pick(allSkills, random);
+            timeSlots[i] = pick(solution.timeSlots, random);
+            committees[i] = pick(solution.committees, random);
+            assignments[i] = pick(solution.committeeAssignments, random);
+        }
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private int next() {
+        next = (next + 1) & (SEQUENCE_SIZE - 1);
+        return next;
+    }
+
+    @Benchmark
+    public boolean personHasSkill() {
+        int i = next();
+        return persons[i].hasSkill(skills[i]);
+    }
+
+    @Benchmark
+    public boolean personIsAvailable() {
+        int i = next();
+        return persons[i].isAvailable(timeSlots[i]);
+    }
+
+    @Benchmark
+    public boolean personIsVetoed() {
+        int i = next();
+        return persons[i].isVetoed(others[i]);
+    }
+
+    @Benchmark
+    public boolean personHasAlreadyInspectedLastTime() {
+        int i = next();
+        return persons[i].hasAlreadyInspectedLastTime(others[i]);
+    }
+
+    @Benchmark
+    public boolean personHasAlreadyInspectedInThePast() {
+        int i = next();
+        return persons[i].hasAlreadyInspectedInThePast(others[i]);
+    }
+
+    @Benchmark
+    public boolean committeeDuplicatedEvaluator() {
+        return committees[next()].duplicatedEvaluator();
+    }
+
+    @Benchmark
+    public boolean committeeHasCorrectNumberOfMinProfessionalPersons() {
+        return committees[next()].hasCorrectNumberOfMinProfessionalPersons();
+    }
+
+    @Benchmark
+    public boolean committeeNotEnoughAvailableEvaluators() {
+        return committees[next()].notEnoughAvailableEvaluators();
+    }
+
+    @Benchmark
+    public boolean committeeRequiredSkillsNotSatisfied() {
+        return committees[next()].requiredSkillsNotSatisfied();
+    }
+
+    @Benchmark
+    public boolean committeeInspectionRotationBroken() {
+        return committees[next()].inspectionRotationBroken();
+    }
+
+    @Benchmark
+    public boolean committeeInspectionFollowUpNotRespected() {
+        return committees[next()].inspectionFollowUpNotRespected();
+    }
+
+    @Benchmark
+    public int assignmentDistance() {
+        return assignments[next()].getDistance();
+    }
+}
@@ -0,0 +1,100 @@
+package fr.cirad.solver;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+import fr.cirad.domain.BenchmarkProblems;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+
+/**
+ * Incremental score calculation throughput for random moves, either with the whole constraint
+ * provider or with each constraint alone. Run with the gc profiler to get the allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ScoreCalculationBenchmark {
+
+    private static final String ALL_CONSTRAINTS = "all";
+
+    @Param({ALL_CONSTRAINTS, "Self conflict",
+            "A person cannot be assigned multiple times to the same committee",
+            "Max number of professional", "Min number of professional",
+            "Max number of non professional", "Min number of non professional",
+            "Not enough available evaluators for the meeting",
+            "Evaluated must be available for the meeting", "Required skills", "Non-reciprocity",
+            "Inspector rotation not respected", "Inspector follow up not respected", "Veto",
+            "Travelling distance range", "Max number of inspections",
+            "Number of committees for a given timeslot"})
+    public String constraint;
+
+    private CommitteeSolution solution;
+
+    private InnerScoreDirector<CommitteeSolution, HardMediumSoftScore> scoreDirector;
+
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SingleConstraintProvider.constraintName =
+                ALL_CONSTRAINTS.equals(constraint) ? null : constraint;
+        var solverConfig = new SolverConfig().withSolutionClass(CommitteeSolution.class)
+                .withEntityClasses(Committee.class, CommitteeAssignment.class)
+                .withConstraintProviderClass(SingleConstraintProvider.class);
+        var solverFactory = (DefaultSolverFactory<CommitteeSolution>) SolverFactory
+                .<CommitteeSolution>create(solverConfig);
+        solution = BenchmarkProblems
+                .randomlyAssigned(BenchmarkProblems.loadDefaultSolverOptions(), 0L);
+        scoreDirector = solverFactory.<HardMediumSoftScore>getScoreDirectorFactory()
+                .buildScoreDirector();
+        scoreDirector.setWorkingSolution(solution);
+        scoreDirector.calculateScore();
+        random = new Random(0L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scoreDirector.close();
+    }
+
+    @Benchmark
+    public HardMediumSoftScore committeeChangeMove() {
+        var assignments = solution.committeeAssignments;
+        var assignment = assignments.get(random.nextInt(assignments.size()));
+        // a committee of the value range of the assignment, the last index unassigns
+        var committeeRange = assignment.getCommitteeRange();
+        int index = random.nextInt(committeeRange.size() + 1);
+        scoreDirector.beforeVariableChanged(assignment, "committee");
+        assignment.committee = index < committeeRange.size() ? committeeRange.get(index) : null;
+        scoreDirector.afterVariableChanged(assignment, "committee");
+        scoreDirector.triggerVariableListeners();
+        return scoreDirector.calculateScore();
+    }
+
+    @Benchmark
+    public HardMediumSoftScore timeSlotChangeMove() {
+        var committee = solution.committees.get(random.nextInt(solution.committees.size()));
+        var timeSlot = solution.timeSlots.get(random.nextInt(solution.timeSlots.size()));
+        scoreDirector.beforeVariableChanged(committee, "timeSlot");
+        committee.timeSlot = timeSlot;
+        scoreDirector.afterVariableChanged(committee, "timeSlot");
+        scoreDirector.triggerVariableListeners();
+        return scoreDirector.calculateScore();
+    }
+}
@@ -0,0 +1,128 @@
+package fr.cirad.solver;
+
+import static org.optaplanner.core.api.score.stream.ConstraintCollectors.count;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.score.stream.ConstraintFactory;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+import fr.cirad.domain.BenchmarkProblems;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.Settings;
+import fr.cirad.domain.TimeSlot;
+
+/**
+ * The number of committees by time slot constraint against its former implementation, which
+ * joined each committee with the settings and grouped on a copy of its time slot carrying them.
+ * Run with the gc profiler to compare the allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TimeSlotRangeConstraintBenchmark {
+
+    private static final String CONSTRAINT_NAME = "Number of committees for a given timeslot";
+
+    @Param({"groupByTimeSlot", "joinAndCopy"})
+    public String implementation;
+
+    private CommitteeSolution solution;
+
+    private InnerScoreDirector<CommitteeSolution, HardMediumSoftScore> scoreDirector;
+
+    private Random random;
+
+    /**
+     * The former constraint, creating a time slot copy for each committee on each evaluation.
+     */
+    public static class JoinAndCopyConstraintProvider implements ConstraintProvider {
+
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            return new Constraint[] {constraintFactory.forEach(Committee.class)
+                    .join(Settings.class)
+                    .map((c, s) -> new SettingsTimeSlot(c.timeSlot.name, s))
+                    .groupBy(t -> t, count())
+                    .filter((t, nb) -> !t.settings.isNumberOfCommitteesInRange(nb))
+                    .penalize(HardMediumSoftScore.ONE_HARD)
+                    .asConstraint(CONSTRAINT_NAME)};
+        }
+    }
+
+    // The time slot with the settings it had before, equal to the time slots of the same name
+    private static class SettingsTimeSlot extends TimeSlot {
+        final Settings settings;
+
+        SettingsTimeSlot(String name, Settings settings) {
+            super(name);
+            this.settings = settings;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SingleConstraintProvider.constraintName = CONSTRAINT_NAME;
+        var solverConfig = new SolverConfig().withSolutionClass(CommitteeSolution.class)
+                .withEntityClasses(Committee.class, CommitteeAssignment.class)
+                .withConstraintProviderClass("joinAndCopy".equals(implementation)
+                        ? JoinAndCopyConstraintProvider.class
+                        : SingleConstraintProvider.class);
+        var solverFactory = (DefaultSolverFactory<CommitteeSolution>) SolverFactory
+                .<CommitteeSolution>create(solverConfig);
+        solution = BenchmarkProblems
+                .randomlyAssigned(BenchmarkProblems.loadDefaultSolverOptions(), 0L);
+        scoreDirector = solverFactory.<HardMediumSoftScore>getScoreDirectorFactory()
+                .buildScoreDirector();
+        scoreDirector.setWorkingSolution(solution);
+        scoreDirector.calculateScore();
+        random = new Random(0L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scoreDirector.close();
+    }
+
+    // The committee shadow variables change, so the committee is evaluated again
+    @Benchmark
+    public HardMediumSoftScore committeeChangeMove() {
+        var assignments = solution.committeeAssignments;
+        var assignment = assignments.get(random.nextInt(assignments.size()));
+        // a committee of the value range of the assignment, the last index unassigns
+        var committeeRange = assignment.getCommitteeRange();
+        int index = random.nextInt(committeeRange.size() + 1);
+        scoreDirector.beforeVariableChanged(assignment, "committee");
+        assignment.committee = index < committeeRange.size() ? committeeRange.get(index) : null;
+        scoreDirector.afterVariableChanged(assignment, "committee");
+        scoreDirector.triggerVariableListeners();
+        return scoreDirector.calculateScore();
+    }
+
+    @Benchmark
+    public HardMediumSoftScore timeSlotChangeMove() {
+        var committee = solution.committees.get(random.nextInt(solution.committees.size()));
+        var timeSlot = solution.timeSlots.get(random.nextInt(solution.timeSlots.size()));
+        scoreDirector.beforeVariableChanged(committee, "timeSlot");
+        committee.timeSlot = timeSlot;
+        scoreDirector.afterVariableChanged(committee, "timeSlot");
+        scoreDirector.triggerVariableListeners();
+        return scoreDirector.calculateScore();
+    }
+}
@@ -0,0 +1,25 @@
+package fr.cirad.domain;
+
+/**
+ * Minimal helpers over fixed size long[] bitsets, used to compile the person skills,
+ * availability and vetoes so that the solver hot path does not allocate.
+ */
+public final class BitSets {
+
+    private BitSets() {
+        // static helpers only
+    }
+
+    public static long[] create(int size) {
+        return new long[(size + 63) >>> 6];
+    }
+
+    public static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    public static boolean get(long[] bits, int index) {
+        int word = index >>> 6;
+        return word < bits.length && (bits[word] & (1L << index)) != 0;
+    }
+}
@@ -0,0 +1,114 @@
+package fr.cirad.domain;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * The single instance of each skill, time slot, location and person type of a solution, by case
+ * insensitive name like their equals, with a dense ordinal given in order of registration.
+ * CommitteeSolution rewires its persons to these instances each time it compiles them, so that
+ * the values the constraints compare are usually the same object, and the ordinals index the
+ * person bitsets. A value keeps its ordinal while persons are added or removed. The person type
+ * constants are registered first, so they have the same ordinals in every solution.
+ */
+public class CanonicalRegistry {
+
+    private final Instances<Skill> skills = new Instances<>((s, ordinal) -> s.ordinal = ordinal);
+    private final Instances<TimeSlot> timeSlots =
+            new Instances<>((t, ordinal) -> t.ordinal = ordinal);
+    private final Instances<Location> locations =
+            new Instances<>((l, ordinal) -> l.ordinal = ordinal);
+    private final Instances<PersonType> personTypes =
+            new Instances<>((pt, ordinal) -> pt.ordinal = ordinal);
+
+    public CanonicalRegistry() {
+        for (var personType : List.of(PersonType.PROFESSIONAL, PersonType.NON_PROFESSIONAL,
+                PersonType.EXTERNAL, PersonType.UNDEFINED)) {
+            personType(personType);
+        }
+    }
+
+    public Skill skill(Skill skill) {
+        return skill != null ? skills.intern(skill.name, () -> skill) : null;
+    }
+
+    public Skill skill(String name) {
+        return skills.intern(name, () -> new Skill(name));
+    }
+
+    public TimeSlot timeSlot(TimeSlot timeSlot) {
+        return timeSlot != null ? timeSlots.intern(timeSlot.name, () -> timeSlot) : null;
+    }
+
+    public TimeSlot timeSlot(String name) {
+        return timeSlots.intern(name, () -> new TimeSlot(name));
+    }
+
+    public Location location(Location location) {
+        return location != null ? locations.intern(location.name, () -> location) : null;
+    }
+
+    public Location location(String name) {
+        return locations.intern(name, () -> new Location(name));
+    }
+
+    public PersonType personType(PersonType personType) {
+        return personType != null ? personTypes.intern(personType.name, () -> personType) : null;
+    }
+
+    public PersonType personType(String name) {
+        return personTypes.intern(name, () -> new PersonType(name));
+    }
+
+    // The number of ordinals, which is the size of the person bitsets
+    public int getNbSkills() {
+        return skills.size();
+    }
+
+    public int getNbTimeSlots() {
+        return timeSlots.size();
+    }
+
+    /**
+     * Hash code of a name consistent with equalsIgnoreCase, which compares each character, then
+     * the upper case and the lower case of the upper case, without creating a lower case string.
+     */
+    static int hashName(String name) {
+        if (name == null) {
+            return 0;
+        }
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+        }
+        return hash;
+    }
+
+    private static class Instances<T> {
+        private final Map<String, T> byName = new HashMap<>();
+        private final ObjIntConsumer<T> setOrdinal;
+
+        Instances(ObjIntConsumer<T> setOrdinal) {
+            this.setOrdinal = setOrdinal;
+        }
+
+        // The instance registered with this name, else the given one with the next ordinal
+        T intern(String name, Supplier<T> instance) {
+            var key = CommitteeSolution.ordinalKey(name);
+            var canonical = byName.get(key);
+            if (canonical == null) {
+                canonical = instance.get();
+                setOrdinal.accept(canonical, byName.size());
+                byName.put(key, canonical);
+            }
+            return canonical;
+        }
+
+        int size() {
+            return byName.size();
+        }
+    }
+}
@@ -2,13 +2,17 @@ package fr.cirad.domain;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.entity.PlanningPin;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
+import org.optaplanner.core.api.domain.solution.cloner.DeepPlanningClone;
 import org.optaplanner.core.api.domain.variable.InverseRelationShadowVariable;
+import org.optaplanner.core.api.domain.variable.PiggybackShadowVariable;
 import org.optaplanner.core.api.domain.variable.PlanningVariable;
+import org.optaplanner.core.api.domain.variable.ShadowVariable;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @PlanningEntity
@@ -28,10 +32,51 @@ public class Committee implements Comparable<Committee> {
     @PlanningVariable(valueRangeProviderRefs = {"timeSlotRange"}, nullable = true)
     public TimeSlot timeSlot;
 
+    // Pinned by an initial assignment giving the time slot, the solver does not change it
+    @PlanningPin
+    public boolean pinned;
+
     @InverseRelationShadowVariable(sourceVariableName = "committee")
     @JsonIgnore
     public List<CommitteeAssignment> assignments = new ArrayList<>();
 
+    // Composition counters, kept up to date by CommitteeCompositionVariableListener. Shadow
+    // variables cannot be primitives, but small counts are served by the Integer cache.
+    @ShadowVariable(variableListenerClass = CommitteeCompositionVariableListener.class,
+            sourceEntityClass = CommitteeAssignment.class, sourceVariableName = "committee")
+    @JsonIgnore
+    public Integer nbProfessionals = 0;
+
+    @PiggybackShadowVariable(shadowVariableName = "nbProfessionals")
+    @JsonIgnore
+    public Integer nbNonProfessionals = 0;
+
+    @PiggybackShadowVariable(shadowVariableName = "nbProfessionals")
+    @JsonIgnore
+    public Integer nbDuplicatedEvaluators = 0;
+
+    @PiggybackShadowVariable(shadowVariableName = "nbProfessionals")
+    @JsonIgnore
+    public Integer nbMissingRequiredSkills = 0;
+
+    @PiggybackShadowVariable(shadowVariableName = "nbProfessionals")
+    @JsonIgnore
+    public Integer nbFollowUps = 0;
+
+    @PiggybackShadowVariable(shadowVariableName = "nbProfessionals")
+    @JsonIgnore
+    public Integer nbRotationBreaks = 0;
+
+    // Evaluators multiset, it does not depend on the order the inverse relation is updated
+    @DeepPlanningClone
+    @JsonIgnore
+    private List<Person> evaluators = new ArrayList<>();
+
+    // Number of evaluators having each of the evaluated person required skills, by index
+    @DeepPlanningClone
+    @JsonIgnore
+    private List<Integer> requiredSkillCoverage = new ArrayList<>();
+
     private static final Comparator<Committee> COMPARATOR =
             Comparator.comparing(c -> c.evaluatedPerson);
 
@@ -44,75 +89,144 @@ public class Committee implements Comparable<Committee> {
         this.evaluatedPerson = evaluatedPerson;
         this.settings = settings;
         this.useAvailability = settings.useAvailability;
+        resetComposition();
     }
 
-    public boolean duplicatedEvaluator() {
-        var set = assignments.stream().map(a -> a.assignedPerson).collect(Collectors.toSet());
-        return assignments.size() > set.size();
+    /**
+     * Recomputes the composition counters from the current assignments. The counters are then kept
+     * up to date incrementally, as the assignments change, by the variable listener.
+     */
+    public void resetComposition() {
+        nbProfessionals = 0;
+        nbNonProfessionals = 0;
+        nbDuplicatedEvaluators = 0;
+        nbFollowUps = 0;
+        nbRotationBreaks = 0;
+        evaluators = new ArrayList<>(assignments.size());
+        requiredSkillCoverage = new ArrayList<>(
+                Collections.nCopies(evaluatedPerson.requiredSkills.size(), 0));
+        nbMissingRequiredSkills = requiredSkillCoverage.size();
+        for (CommitteeAssignment assignment : assignments) {
+            addEvaluator(assignment.assignedPerson);
+        }
     }
 
-    private int numberOf(PersonType personType) {
-        return (int) assignments.stream().map(a -> a.assignedPerson.personType)
-                .filter(t -> t.equals(personType)).count();
+    void addEvaluator(Person person) {
+        if (person == null) {
+            return;
+        }
+        if (evaluators.contains(person)) {
+            nbDuplicatedEvaluators++;
+        }
+        evaluators.add(person);
+        updateCounters(person, 1);
+    }
+
+    void removeEvaluator(Person person) {
+        if (person == null || !evaluators.remove(person)) {
+            return;
+        }
+        if (evaluators.contains(person)) {
+            nbDuplicatedEvaluators--;
+        }
+        updateCounters(person, -1);
+    }
+
+    // The incremental state below the counters, compared in the tests with a recomputation
+    List<Person> getEvaluators() {
+        return evaluators;
+    }
+
+    List<Integer> getRequiredSkillCoverage() {
+        return requiredSkillCoverage;
+    }
+
+    private void updateCounters(Person person, int delta) {
+        if (PersonType.PROFESSIONAL.equals(person.personType)) {
+            nbProfessionals += delta;
+        } else if (PersonType.NON_PROFESSIONAL.equals(person.personType)) {
+            nbNonProfessionals += delta;
+        }
+        if (person.hasAlreadyInspectedLastTime(evaluatedPerson)) {
+            nbFollowUps += delta;
+        }
+        if (person.hasAlreadyInspectedInThePast(evaluatedPerson)) {
+            nbRotationBreaks += delta;
+        }
+        var requiredSkills = evaluatedPerson.requiredSkills;
+        for (int i = 0; i < requiredSkillCoverage.size(); i++) {
+            if (person.hasSkill(requiredSkills.get(i))) {
+                int coverage = requiredSkillCoverage.get(i) + delta;
+                requiredSkillCoverage.set(i, coverage);
+                // the skill became covered or uncovered
+                if (coverage == (delta > 0 ? 1 : 0)) {
+                    nbMissingRequiredSkills -= delta;
+                }
+            }
+        }
+    }
+
+    public boolean duplicatedEvaluator() {
+        return nbDuplicatedEvaluators > 0;
     }
 
     public boolean hasCorrectNumberOfMaxProfessionalPersons() {
-        return numberOf(PersonType.PROFESSIONAL) <= settings.nbProParticipants.getMax();
+        return nbProfessionals <= settings.nbProParticipants.getMax();
     }
 
     public boolean hasCorrectNumberOfMinProfessionalPersons() {
-        return numberOf(PersonType.PROFESSIONAL) >= settings.nbProParticipants.getMin();
+        return nbProfessionals >= settings.nbProParticipants.getMin();
     }
 
     public boolean hasCorrectNumberOfMaxNonProfessionalPersons() {
-        return numberOf(PersonType.NON_PROFESSIONAL) <= settings.nbNonProParticipants.getMax();
+        return nbNonProfessionals <= settings.nbNonProParticipants.getMax();
     }
 
     public boolean hasCorrectNumberOfMinNonProfessionalPersons() {
-        return numberOf(PersonType.NON_PROFESSIONAL) >= settings.nbNonProParticipants.getMin();
+        return nbNonProfessionals >= settings.nbNonProParticipants.getMin();
     }
 
     public boolean notEnoughAvailableEvaluators() {
+        return notEnoughAvailableEvaluators(timeSlot);
+    }
+
+    public boolean notEnoughAvailableEvaluators(TimeSlot timeSlot) {
         if (Boolean.FALSE.equals(useAvailability))
             return false;
-        long nbAvailable =
-                assignments.stream().filter(ca -> ca.assignedPerson.isAvailable(timeSlot)).count();
+        int nbAvailable = 0;
+        for (int i = 0; i < evaluators.size() && nbAvailable < 2; i++) {
+            if (evaluators.get(i).isAvailable(timeSlot)) {
+                nbAvailable++;
+            }
+        }
         return nbAvailable < 2;
     }
 
     public boolean evaluatedNotAvailable() {
+        return evaluatedNotAvailable(timeSlot);
+    }
+
+    public boolean evaluatedNotAvailable(TimeSlot timeSlot) {
         if (Boolean.FALSE.equals(useAvailability))
             return false;
         return !evaluatedPerson.isAvailable(timeSlot);
     }
 
+    // Whether the committee, with its current evaluators, can meet in the time slot
+    public boolean isAvailable(TimeSlot timeSlot) {
+        return !evaluatedNotAvailable(timeSlot) && !notEnoughAvailableEvaluators(timeSlot);
+    }
+
     public boolean requiredSkillsNotSatisfied() {
-        for (Skill s : evaluatedPerson.requiredSkills) {
-            if (assignments.stream().map(CommitteeAssignment::getAssignedPerson)
-                    .noneMatch(p -> p.hasSkill(s))) {
-                return true;
-            }
-        }
-        return false;
+        return nbMissingRequiredSkills > 0;
     }
 
     public boolean inspectionRotationBroken() {
-        for (CommitteeAssignment assignment : assignments) {
-            if (assignment.assignedPerson != null
-                    && assignment.assignedPerson.hasAlreadyInspectedInThePast(evaluatedPerson)) {
-                return true;
-            }
-        }
-        return false;
+        return nbRotationBreaks > 0;
     }
 
     public boolean inspectionFollowUpNotRespected() {
-        long nbFollowUp =
-                assignments.stream()
-                        .filter(a -> a.assignedPerson != null
-                                && a.assignedPerson.hasAlreadyInspectedLastTime(evaluatedPerson))
-                        .count();
-        return nbFollowUp != settings.nbInspectorsFollowingUp;
+        return nbFollowUps != settings.nbInspectorsFollowingUp;
     }
 
     @Override
@@ -1,9 +1,14 @@
 package fr.cirad.domain;
 
+import java.util.AbstractList;
 import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.entity.PlanningPin;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
+import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
 import org.optaplanner.core.api.domain.variable.PlanningVariable;
 
 @PlanningEntity
@@ -17,6 +22,14 @@ public class CommitteeAssignment implements Comparable<CommitteeAssignment> {
     @PlanningVariable(valueRangeProviderRefs = {"committeeRange"}, nullable = true)
     public Committee committee;
 
+    // The solution of the assignment, whose clones reference themselves instead
+    @JsonIgnore
+    public CommitteeSolution solution;
+
+    // Pinned by an initial assignment, the solver does not change its committee
+    @PlanningPin
+    public boolean pinned;
+
     @JsonIgnore
     public DistanceMatrix distanceMatrix;
 
@@ -45,13 +58,28 @@ public class CommitteeAssignment implements Comparable<CommitteeAssignment> {
         return committee;
     }
 
+    /**
+     * The committees the assigned person can evaluate: the solver does not try the others, which
+     * the hard constraints would always penalize. A view of the committees of the solution at the
+     * indexes compiled on the person, a problem fact, so that the clones of the solution do not
+     * copy a list of committees per assignment.
+     */
+    @ValueRangeProvider(id = "committeeRange")
+    @JsonIgnore
+    public List<Committee> getCommitteeRange() {
+        if (solution == null || assignedPerson == null) {
+            return List.of();
+        }
+        return new CommitteeRange(solution.committees, assignedPerson.committeeRange);
+    }
+
     @JsonIgnore
-    public Integer getDistance() {
+    public int getDistance() {
         if (assignedPerson == null || distanceMatrix == null) {
             return 0;
         }
-        return distanceMatrix.getDistance(assignedPerson.location.name,
-                committee.evaluatedPerson.location.name);
+        return distanceMatrix.getDistance(assignedPerson.location.index,
+                committee.evaluatedPerson.location.index);
     }
 
     @Override
@@ -79,4 +107,23 @@ public class CommitteeAssignment implements Comparable<CommitteeAssignment> {
         return this.id.hashCode();
     }
 
+    private static class CommitteeRange extends AbstractList<Committee> implements RandomAccess {
+        private final List<Committee> committees;
+        private final int[] indexes;
+
+        CommitteeRange(List<Committee> committees, int[] indexes) {
+            this.committees = committees;
+            this.indexes = indexes;
+        }
+
+        @Override
+        public Committee get(int index) {
+            return committees.get(indexes[index]);
+        }
+
+        @Override
+        public int size() {
+            return indexes.length;
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package fr.cirad.domain;
+
+import org.optaplanner.core.api.domain.variable.VariableListener;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+
+/**
+ * Keeps the {@link Committee} composition counters up to date when a
+ * {@link CommitteeAssignment#committee} changes, so that the constraints read them in O(1)
+ * instead of streaming over the committee assignments on each evaluation.
+ */
+public class CommitteeCompositionVariableListener
+        implements VariableListener<CommitteeSolution, CommitteeAssignment> {
+
+    private static final String[] SHADOW_VARIABLES = {"nbProfessionals", "nbNonProfessionals",
+            "nbDuplicatedEvaluators", "nbMissingRequiredSkills", "nbFollowUps",
+            "nbRotationBreaks"};
+
+    @Override
+    public void resetWorkingSolution(ScoreDirector<CommitteeSolution> scoreDirector) {
+        scoreDirector.getWorkingSolution().committees.forEach(Committee::resetComposition);
+    }
+
+    @Override
+    public void beforeEntityAdded(ScoreDirector<CommitteeSolution> scoreDirector,
+            CommitteeAssignment assignment) {
+        // Do nothing
+    }
+
+    @Override
+    public void afterEntityAdded(ScoreDirector<CommitteeSolution> scoreDirector,
+            CommitteeAssignment assignment) {
+        update(scoreDirector, assignment, true);
+    }
+
+    @Override
+    public void beforeVariableChanged(ScoreDirector<CommitteeSolution> scoreDirector,
+            CommitteeAssignment assignment) {
+        update(scoreDirector, assignment, false);
+    }
+
+    @Override
+    public void afterVariableChanged(ScoreDirector<CommitteeSolution> scoreDirector,
+            CommitteeAssignment assignment) {
+        update(scoreDirector, assignment, true);
+    }
+
+    @Override
+    public void beforeEntityRemoved(ScoreDirector<CommitteeSolution> scoreDirector,
+            CommitteeAssignment assignment) {
+        update(scoreDirector, assignment, false);
+    }
+
+    @Override
+    public void afterEntityRemoved(ScoreDirector<CommitteeSolution> scoreDirector,
+            CommitteeAssignment assignment) {
+        // Do nothing
+    }
+
+    private void update(ScoreDirector<CommitteeSolution> scoreDirector,
+            CommitteeAssignment assignment, boolean added) {
+        var committee = assignment.committee;
+        if (committee == null) {
+            return;
+        }
+        for (String variable : SHADOW_VARIABLES) {
+            scoreDirector.beforeVariableChanged(committee, variable);
+        }
+        if (added) {
+            committee.addEvaluator(assignment.assignedPerson);
+        } else {
+            committee.removeEvaluator(assignment.assignedPerson);
+        }
+        for (String variable : SHADOW_VARIABLES) {
+            scoreDirector.afterVariableChanged(committee, variable);
+        }
+    }
+
+}
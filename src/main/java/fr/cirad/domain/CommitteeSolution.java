@@ -1,11 +1,17 @@
 package fr.cirad.domain;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
 import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty;
 import org.optaplanner.core.api.domain.solution.PlanningScore;
@@ -29,7 +35,6 @@ public class CommitteeSolution {
 
     @PlanningEntityCollectionProperty
     @JsonIgnore
-    @ValueRangeProvider(id = "committeeRange")
     public List<Committee> committees;
 
     @ProblemFactCollectionProperty
@@ -53,6 +58,13 @@ public class CommitteeSolution {
     // button
     public SolverStatus solverStatus;
 
+    // Ignored by OptaPlanner, set by the solution store each time it saves a new best solution
+    public long version;
+
+    // Ignored by OptaPlanner and shared by its clones, the single instance of each value
+    @JsonIgnore
+    public CanonicalRegistry registry;
+
     public CommitteeSolution() {
         // must have a no-args constructor so it can be constructed by OptaPlanner
     }
@@ -61,17 +73,21 @@ public class CommitteeSolution {
         this.id = id;
         this.settings = options.settings;
         this.persons = options.participants;
+        this.registry = new CanonicalRegistry();
 
         // verify that all persons have a unique id
         if (persons.stream().map(p -> p.name).distinct().count() != persons.size()) {
             throw new IllegalArgumentException("All persons must have a unique name");
         }
 
-        // set range option for each participant and also travelling distance constraint
-        this.persons.stream().forEach(p -> {
-            p.init(options.settings);
-            p.travellingDistanceRangeConstraint = options.settings.travellingDistanceRange;
-        });
+        // resolve the distance matrix locations once, so that distances are looked up by index
+        var distanceMatrix = options.settings.distanceMatrix;
+        if (distanceMatrix != null) {
+            distanceMatrix.init();
+        }
+
+        this.persons.forEach(this::initPerson);
+        compilePersons();
 
         this.timeSlots = this.persons.stream().flatMap(person -> person.availability.stream())
                 .filter(timeSlot -> !Strings.isNullOrEmpty(timeSlot.name)).distinct()
@@ -94,6 +110,9 @@ public class CommitteeSolution {
             }
         }
 
+        compileCommitteeRanges();
+        applyInitialAssignments(options.initialAssignments);
+
         // Optional shuffling of the participants
         if (Boolean.TRUE.equals(options.settings.shuffleParticipants)) {
             // No need to use strong randomness, as the shuffling is only done once
@@ -102,6 +121,154 @@ public class CommitteeSolution {
         }
     }
 
+    // set range option for the participant and also travelling distance constraint
+    public void initPerson(Person person) {
+        person.init(settings);
+        person.travellingDistanceRangeConstraint = settings.travellingDistanceRange;
+        if (person.location != null) {
+            var distanceMatrix = settings.distanceMatrix;
+            person.location.index =
+                    distanceMatrix != null ? distanceMatrix.indexOf(person.location.name) : -1;
+        }
+    }
+
+    /**
+     * Compiles what the constraints use of the persons, which depends on all the persons: it must
+     * be done again when persons are added or removed, or their skills, availability or vetoes
+     * change.
+     */
+    public void compilePersons() {
+        if (registry == null) {
+            registry = new CanonicalRegistry();
+        }
+        this.persons.forEach(this::canonicalize);
+        compileBitSets();
+
+        // index the inspection history once, each check is then a single lookup
+        var inspectionHistory =
+                new InspectionHistory(this.persons, settings.getNbRotationsInHistory());
+        this.persons.forEach(p -> p.inspectionHistory = inspectionHistory);
+    }
+
+    // Rewires the values of the person to the single instances of the solution
+    private void canonicalize(Person person) {
+        person.personType = registry.personType(person.personType);
+        person.location = registry.location(person.location);
+        person.skills = canonicalize(person.skills, registry::skill);
+        person.requiredSkills = canonicalize(person.requiredSkills, registry::skill);
+        person.availability = canonicalize(person.availability, registry::timeSlot);
+    }
+
+    private static <T> List<T> canonicalize(List<T> values, UnaryOperator<T> canonical) {
+        var canonicalized = new ArrayList<T>(values.size());
+        values.forEach(value -> canonicalized.add(canonical.apply(value)));
+        return canonicalized;
+    }
+
+    /**
+     * Restricts the committees of each assignment to those its person can evaluate, see
+     * {@link Person#canEvaluate(Person)}, which shrinks the search space by the committees the
+     * hard constraints always penalize. The indexes of these committees are compiled on each
+     * assigned person. The persons must be compiled first, and it must be done again when the
+     * persons or the committees change.
+     */
+    public void compileCommitteeRanges() {
+        var compiled = Collections.newSetFromMap(new IdentityHashMap<Person, Boolean>());
+        for (var assignment : committeeAssignments) {
+            assignment.solution = this;
+            var person = assignment.assignedPerson;
+            if (compiled.add(person)) {
+                person.committeeRange = IntStream.range(0, committees.size())
+                        .filter(i -> person.canEvaluate(committees.get(i).evaluatedPerson))
+                        .toArray();
+            }
+        }
+    }
+
+    /**
+     * Interns persons to dense ordinals, then compiles the skills, availability and vetoes of each
+     * person to bitsets, indexed by the ordinals of the canonical skills and time slots. The
+     * constraint predicates are then word level bit tests instead of case insensitive list scans.
+     */
+    private void compileBitSets() {
+        var personOrdinals = new HashMap<String, Integer>();
+        for (int i = 0; i < persons.size(); i++) {
+            var person = persons.get(i);
+            person.ordinal = i;
+            personOrdinals.putIfAbsent(ordinalKey(person.name), i);
+        }
+        int nbSkills = registry.getNbSkills();
+        int nbTimeSlots = registry.getNbTimeSlots();
+        for (var person : persons) {
+            person.skillBits = BitSets.create(nbSkills);
+            person.skills.forEach(s -> BitSets.set(person.skillBits, s.ordinal));
+            person.requiredSkillBits = BitSets.create(nbSkills);
+            person.requiredSkills.forEach(s -> BitSets.set(person.requiredSkillBits, s.ordinal));
+            person.availabilityBits = BitSets.create(nbTimeSlots);
+            person.availability.forEach(t -> BitSets.set(person.availabilityBits, t.ordinal));
+            person.vetoBits = BitSets.create(persons.size());
+        }
+        // a veto works both ways, so it is set on both persons
+        for (var person : persons) {
+            for (var veto : person.vetoes) {
+                var vetoed = personOrdinals.get(ordinalKey(veto.name));
+                if (vetoed != null) {
+                    BitSets.set(person.vetoBits, vetoed);
+                    BitSets.set(persons.get(vetoed).vetoBits, person.ordinal);
+                }
+            }
+        }
+    }
+
+    /**
+     * Assigns the persons to the committees of the initial assignments, each person taking its
+     * assignments in order. The initial assignments of unknown persons or committees, or beyond the
+     * number of assignments of a person, are ignored, so that last year's committees can be given
+     * as they are.
+     */
+    private void applyInitialAssignments(List<InitialAssignment> initialAssignments) {
+        if (initialAssignments == null || initialAssignments.isEmpty()) {
+            return;
+        }
+        var committeesByName = new HashMap<String, Committee>();
+        committees.forEach(c -> committeesByName.put(ordinalKey(c.evaluatedPerson.name), c));
+        var timeSlotsByName = new HashMap<String, TimeSlot>();
+        timeSlots.forEach(t -> timeSlotsByName.putIfAbsent(ordinalKey(t.name), t));
+        var freeAssignmentsByName = new HashMap<String, ArrayDeque<CommitteeAssignment>>();
+        for (var assignment : committeeAssignments) {
+            freeAssignmentsByName
+                    .computeIfAbsent(ordinalKey(assignment.assignedPerson.name),
+                            k -> new ArrayDeque<>())
+                    .add(assignment);
+        }
+
+        for (var initialAssignment : initialAssignments) {
+            var committee = committeesByName.get(ordinalKey(initialAssignment.evaluatedPerson));
+            var freeAssignments =
+                    freeAssignmentsByName.get(ordinalKey(initialAssignment.assignedPerson));
+            if (committee == null || freeAssignments == null || freeAssignments.isEmpty()) {
+                continue;
+            }
+            var assignment = freeAssignments.poll();
+            assignment.committee = committee;
+            assignment.pinned = initialAssignment.pinned;
+            committee.assignments.add(assignment);
+            var timeSlot = initialAssignment.timeSlot != null
+                    ? timeSlotsByName.get(ordinalKey(initialAssignment.timeSlot))
+                    : null;
+            if (timeSlot != null && !committee.pinned) {
+                committee.timeSlot = timeSlot;
+                committee.pinned = initialAssignment.pinned;
+            }
+        }
+        committees.forEach(Committee::resetComposition);
+    }
+
+    // names are compared ignoring case everywhere in the domain
+    public static String ordinalKey(String name) {
+        return Strings.nullToEmpty(name).toLowerCase(Locale.ROOT);
+    }
+
     public Optional<Committee> getCommitteeByEvaluatedPersonName(String personName) {
         return this.committees.stream()
                 .filter(committee -> committee.evaluatedPerson.name.equals(personName)).findFirst();
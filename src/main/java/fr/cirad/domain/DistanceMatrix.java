@@ -1,11 +1,24 @@
 package fr.cirad.domain;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 public class DistanceMatrix {
     public List<String> locations;
     public Integer[][] distances;
 
+    // Dense primitive copy of the distances, row-major, built once by init()
+    @JsonIgnore
+    private int[] flatDistances;
+
+    @JsonIgnore
+    private Map<String, Integer> indexes;
+
+    @JsonIgnore
+    private int size;
+
     public DistanceMatrix() {
         // must have a no-args constructor so it can be deserialized by Jackson
     }
@@ -15,16 +28,53 @@ public class DistanceMatrix {
         this.distances = distances;
     }
 
-    public Integer getDistance(String location1, String location2) {
+    /**
+     * Builds the location index and the flat distance array. It must be called once the matrix
+     * is fully deserialized and before any lookup by index.
+     */
+    public void init() {
+        indexes = new HashMap<>();
         if (locations == null || distances == null) {
-            return 0;
+            size = 0;
+            flatDistances = new int[0];
+            return;
+        }
+        size = locations.size();
+        flatDistances = new int[size * size];
+        for (int i = 0; i < size; i++) {
+            // keep the first occurrence, as List.indexOf did
+            indexes.putIfAbsent(locations.get(i), i);
+            var row = i < distances.length ? distances[i] : null;
+            for (int j = 0; j < size; j++) {
+                if (row != null && j < row.length && row[j] != null) {
+                    flatDistances[i * size + j] = row[j];
+                }
+            }
         }
-        int index1 = locations.indexOf(location1);
-        int index2 = locations.indexOf(location2);
-        if (index1 > -1 && index2 > -1) {
-            return distances[index1][index2];
-        } else {
+    }
+
+    /**
+     * @param location The location name.
+     * @return The dense index of the location, or -1 if it is not part of the matrix.
+     */
+    public int indexOf(String location) {
+        if (indexes == null) {
+            init();
+        }
+        if (location == null) {
+            return -1;
+        }
+        return indexes.getOrDefault(location, -1);
+    }
+
+    public int getDistance(int index1, int index2) {
+        if (index1 < 0 || index2 < 0 || flatDistances == null) {
             return 0;
         }
+        return flatDistances[index1 * size + index2];
+    }
+
+    public Integer getDistance(String location1, String location2) {
+        return getDistance(indexOf(location1), indexOf(location2));
     }
 }
@@ -0,0 +1,28 @@
+package fr.cirad.domain;
+
+/**
+ * An assignment the solving starts from, given by the names of the assigned and evaluated persons,
+ * for instance to solve again after a small change or to start from last year's committees.
+ */
+public class InitialAssignment {
+    public String assignedPerson;
+    public String evaluatedPerson;
+
+    // Time slot of the committee, optional
+    public String timeSlot;
+
+    // The solver keeps a pinned assignment, and the committee time slot if given
+    public boolean pinned;
+
+    public InitialAssignment() {
+        // Empty constructor needed by serialization
+    }
+
+    public InitialAssignment(String assignedPerson, String evaluatedPerson, String timeSlot,
+            boolean pinned) {
+        this.assignedPerson = assignedPerson;
+        this.evaluatedPerson = evaluatedPerson;
+        this.timeSlot = timeSlot;
+        this.pinned = pinned;
+    }
+}
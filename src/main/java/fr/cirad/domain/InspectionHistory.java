@@ -0,0 +1,104 @@
+package fr.cirad.domain;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Compact index of the persons inspection history, built once by CommitteeSolution. For each
+ * (inspector, evaluated person) pair it keeps a bitmask of the rotations in which the inspection
+ * happened, bit 0 being the last rotation, in an open addressing table keyed by both person
+ * ordinals. Only the rotations taken into account by the settings are indexed.
+ */
+public class InspectionHistory {
+
+    // Ordinals are never negative, so no real key can be equal to -1
+    private static final long EMPTY = -1L;
+
+    // The rotations are stored as bits of an int
+    private static final int MAX_ROTATIONS = Integer.SIZE - 1;
+
+    private final long[] keys;
+    private final int[] rotations;
+    private final int mask;
+
+    public InspectionHistory(List<Person> persons, int nbRotations) {
+        int nbRotationsIndexed = Math.min(Math.max(nbRotations, 1), MAX_ROTATIONS);
+        var ordinals = new HashMap<String, Integer>();
+        int nbInspections = 0;
+        for (var person : persons) {
+            ordinals.putIfAbsent(CommitteeSolution.ordinalKey(person.name), person.ordinal);
+            if (person.hasAlreadyInspected != null) {
+                for (int i = 0; i < Math.min(person.hasAlreadyInspected.size(),
+                        nbRotationsIndexed); i++) {
+                    nbInspections += person.hasAlreadyInspected.get(i).size();
+                }
+            }
+        }
+        int capacity = Integer.highestOneBit(Math.max(nbInspections * 2, 8) - 1) << 1;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        rotations = new int[capacity];
+        mask = capacity - 1;
+
+        for (var person : persons) {
+            if (person.hasAlreadyInspected == null) {
+                continue;
+            }
+            for (int i = 0; i < Math.min(person.hasAlreadyInspected.size(),
+                    nbRotationsIndexed); i++) {
+                for (String name : person.hasAlreadyInspected.get(i)) {
+                    var evaluated = ordinals.get(CommitteeSolution.ordinalKey(name));
+                    if (evaluated != null) {
+                        rotations[slot(key(person.ordinal, evaluated))] |= 1 << i;
+                    }
+                }
+            }
+        }
+    }
+
+    public boolean hasInspectedLastTime(Person inspector, Person evaluatedPerson) {
+        return (rotationsOf(inspector, evaluatedPerson) & 1) != 0;
+    }
+
+    public boolean hasInspectedBeforeLastTime(Person inspector, Person evaluatedPerson) {
+        return (rotationsOf(inspector, evaluatedPerson) & ~1) != 0;
+    }
+
+    private int rotationsOf(Person inspector, Person evaluatedPerson) {
+        if (inspector.ordinal < 0 || evaluatedPerson.ordinal < 0) {
+            return 0;
+        }
+        long key = key(inspector.ordinal, evaluatedPerson.ordinal);
+        for (int i = hash(key);; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return rotations[i];
+            }
+            if (keys[i] == EMPTY) {
+                return 0;
+            }
+        }
+    }
+
+    // Returns the slot of the key, claiming a free one if the key is not indexed yet
+    private int slot(long key) {
+        for (int i = hash(key);; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            }
+            if (keys[i] == EMPTY) {
+                keys[i] = key;
+                return i;
+            }
+        }
+    }
+
+    private int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static long key(int inspector, int evaluated) {
+        return ((long) inspector << 32) | evaluated;
+    }
+}
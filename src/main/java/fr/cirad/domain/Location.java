@@ -1,6 +1,7 @@
 package fr.cirad.domain;
 
 import java.util.Comparator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
 
 public class Location implements Comparable<Location> {
@@ -8,6 +9,14 @@ public class Location implements Comparable<Location> {
     @PlanningId
     public String name;
 
+    // Index of the location in the settings distance matrix, resolved by CommitteeSolution
+    @JsonIgnore
+    public int index = -1;
+
+    // Dense ordinal given by the CanonicalRegistry of the solution
+    @JsonIgnore
+    public int ordinal = -1;
+
     private static final Comparator<Location> COMPARATOR = Comparator.comparing(l -> l.name);
 
     public Location() {
@@ -25,6 +34,9 @@ public class Location implements Comparable<Location> {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (!(o instanceof Location)) {
             return false;
         }
@@ -34,7 +46,8 @@ public class Location implements Comparable<Location> {
 
     @Override
     public int hashCode() {
-        return this.name.hashCode();
+        // consistent with equals, which ignores case
+        return CanonicalRegistry.hashName(this.name);
     }
 
     @Override
@@ -4,9 +4,12 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.optaplanner.core.api.domain.lookup.PlanningId;
 
 public class Person implements Comparable<Person> {
 
+    // Unique in a solution, so that the problem changes can look up the working persons
+    @PlanningId
     public String name;
 
     public PersonType personType;
@@ -35,6 +38,32 @@ public class Person implements Comparable<Person> {
     @JsonIgnore
     public Range travellingDistanceRangeConstraint = new Range(0, 100);
 
+    // Dense ordinal and bitsets compiled by CommitteeSolution, null until then
+    @JsonIgnore
+    public int ordinal = -1;
+
+    @JsonIgnore
+    public long[] skillBits;
+
+    @JsonIgnore
+    public long[] requiredSkillBits;
+
+    @JsonIgnore
+    public long[] availabilityBits;
+
+    @JsonIgnore
+    public long[] vetoBits;
+
+    // Index shared by all the persons of a solution, null until compiled by CommitteeSolution
+    @JsonIgnore
+    public InspectionHistory inspectionHistory;
+
+    // The indexes, in the committees of the solution, of those this person can evaluate, compiled
+    // by CommitteeSolution. The clones of the solution share it, see
+    // CommitteeAssignment.getCommitteeRange
+    @JsonIgnore
+    public int[] committeeRange = new int[0];
+
     private static final Comparator<Person> COMPARATOR = Comparator.comparing(p -> p.name);
 
     public Person() {
@@ -46,6 +75,33 @@ public class Person implements Comparable<Person> {
         this.settings = settings;
     }
 
+    /**
+     * A copy sharing the values and the compiled data of the person, for a part of a solution,
+     * which compiles the committee range of the copy against its own committees.
+     */
+    public Person(Person person) {
+        this.name = person.name;
+        this.personType = person.personType;
+        this.skills = person.skills;
+        this.location = person.location;
+        this.availability = person.availability;
+        this.requiredSkills = person.requiredSkills;
+        this.needsEvaluation = person.needsEvaluation;
+        this.vetoes = person.vetoes;
+        this.hasAlreadyInspected = person.hasAlreadyInspected;
+        this.maxNumberOfInspections = person.maxNumberOfInspections;
+        this.settings = person.settings;
+        this.numberOfAssignmentsRangeConstraint = person.numberOfAssignmentsRangeConstraint;
+        this.travellingDistanceRangeConstraint = person.travellingDistanceRangeConstraint;
+        this.ordinal = person.ordinal;
+        this.skillBits = person.skillBits;
+        this.requiredSkillBits = person.requiredSkillBits;
+        this.availabilityBits = person.availabilityBits;
+        this.vetoBits = person.vetoBits;
+        this.inspectionHistory = person.inspectionHistory;
+        this.committeeRange = person.committeeRange;
+    }
+
     /**
      * This function must be called on each Person before running the solver. It will set the
      * constraints on the number of assignments.
@@ -58,30 +114,45 @@ public class Person implements Comparable<Person> {
 
     // Checks if the person has one of the skills
     public boolean hasSkill(Skill skill) {
+        if (skillBits != null && skill.ordinal >= 0) {
+            return BitSets.get(skillBits, skill.ordinal);
+        }
         return this.skills.contains(skill);
     }
 
     // Checks if a person is available for a given time slot
     public boolean isAvailable(TimeSlot t) {
+        if (t == null) {
+            return false;
+        }
+        if (availabilityBits != null && t.ordinal >= 0) {
+            return BitSets.get(availabilityBits, t.ordinal);
+        }
         return availability.contains(t);
     }
 
-    // Checks if two persons are on veto each other
+    // Checks if two persons are on veto each other, the compiled bitset is already symmetric
     public boolean isVetoed(Person other) {
+        if (vetoBits != null && other.ordinal >= 0) {
+            return BitSets.get(vetoBits, other.ordinal);
+        }
         return vetoes.contains(other) || other.vetoes.contains(this);
     }
 
     /**
-     * If the list of people I've already inspected is not empty and has more than one element, then
-     * for each element in the list, if the element contains the name of the person I'm evaluating,
-     * then return true
+     * Checks if the evaluated person was inspected by this person in one of the rotations before
+     * the last one, within the number of rotations to reinspect of the settings.
      *
      * @param evaluatedPerson The person that is being evaluated.
      * @return A boolean value.
      */
     public boolean hasAlreadyInspectedInThePast(Person evaluatedPerson) {
-        if (hasAlreadyInspected != null && hasAlreadyInspected.size() > 1) {
-            for (int i = 1; i < hasAlreadyInspected.size(); i++) {
+        if (inspectionHistory != null) {
+            return inspectionHistory.hasInspectedBeforeLastTime(this, evaluatedPerson);
+        }
+        if (hasAlreadyInspected != null) {
+            int nbRotations = Math.min(hasAlreadyInspected.size(), nbRotationsInHistory());
+            for (int i = 1; i < nbRotations; i++) {
                 var current = hasAlreadyInspected.get(i);
                 if (current.contains(evaluatedPerson.name)) {
                     return true;
@@ -92,10 +163,39 @@ public class Person implements Comparable<Person> {
     }
 
     public boolean hasAlreadyInspectedLastTime(Person evaluatedPerson) {
+        if (inspectionHistory != null) {
+            return inspectionHistory.hasInspectedLastTime(this, evaluatedPerson);
+        }
         return (hasAlreadyInspected != null && !hasAlreadyInspected.isEmpty()
                 && hasAlreadyInspected.get(0).contains(evaluatedPerson.name));
     }
 
+    /**
+     * Checks if the person can evaluate the evaluated person whatever the other evaluators: not
+     * the evaluated person, without veto, not inspecting again within the rotations to reinspect,
+     * and within the travelling distance range for this single assignment.
+     *
+     * @param evaluatedPerson The person that is being evaluated.
+     * @return A boolean value.
+     */
+    public boolean canEvaluate(Person evaluatedPerson) {
+        if (this.equals(evaluatedPerson) || isVetoed(evaluatedPerson)
+                || hasAlreadyInspectedInThePast(evaluatedPerson)) {
+            return false;
+        }
+        var distanceMatrix = settings != null ? settings.distanceMatrix : null;
+        if (distanceMatrix == null || travellingDistanceRangeConstraint == null || location == null
+                || evaluatedPerson.location == null) {
+            return true;
+        }
+        return distanceMatrix.getDistance(location.index,
+                evaluatedPerson.location.index) <= travellingDistanceRangeConstraint.getMax();
+    }
+
+    private int nbRotationsInHistory() {
+        return settings != null ? settings.getNbRotationsInHistory() : Integer.MAX_VALUE;
+    }
+
     /**
      * "If the sum of the distances of all assignments is not in the range of the travelling
      * distance constraint, then the committee is not travelling in range."
@@ -1,6 +1,7 @@
 package fr.cirad.domain;
 
 import java.util.Comparator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
 
 public class PersonType implements Comparable<PersonType> {
@@ -8,6 +9,10 @@ public class PersonType implements Comparable<PersonType> {
     @PlanningId
     public String name;
 
+    // Dense ordinal given by the CanonicalRegistry of the solution, the same for the constants
+    @JsonIgnore
+    public int ordinal = -1;
+
     public static final PersonType PROFESSIONAL = new PersonType("professional");
     public static final PersonType NON_PROFESSIONAL = new PersonType("non-professional");
     public static final PersonType EXTERNAL = new PersonType("external");
@@ -30,6 +35,9 @@ public class PersonType implements Comparable<PersonType> {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (!(o instanceof PersonType)) {
             return false;
         }
@@ -39,7 +47,8 @@ public class PersonType implements Comparable<PersonType> {
 
     @Override
     public int hashCode() {
-        return this.name.hashCode();
+        // consistent with equals, which ignores case
+        return CanonicalRegistry.hashName(this.name);
     }
 
     @Override
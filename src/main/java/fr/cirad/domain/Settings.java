@@ -1,5 +1,7 @@
 package fr.cirad.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class Settings {
     public Range nbProParticipants;
     public Range numberOfAssignmentsForAProfessional;
@@ -25,6 +27,36 @@ public class Settings {
         // Empty constructor needed by serialization
     }
 
+    // Shallow copy, the ranges and the distance matrix are shared
+    public Settings(Settings other) {
+        this.nbProParticipants = other.nbProParticipants;
+        this.numberOfAssignmentsForAProfessional = other.numberOfAssignmentsForAProfessional;
+        this.nbNonProParticipants = other.nbNonProParticipants;
+        this.numberOfAssignmentsForANonProfessional = other.numberOfAssignmentsForANonProfessional;
+        this.nbExternalParticipants = other.nbExternalParticipants;
+        this.numberOfAssignmentsForAnExternal = other.numberOfAssignmentsForAnExternal;
+        this.nbRotationsToReinspect = other.nbRotationsToReinspect;
+        this.nbInspectorsFollowingUp = other.nbInspectorsFollowingUp;
+        this.distanceMatrix = other.distanceMatrix;
+        this.travellingDistanceRange = other.travellingDistanceRange;
+        this.useAvailability = other.useAvailability;
+        this.shuffleParticipants = other.shuffleParticipants;
+        this.committeeMeetingSize = other.committeeMeetingSize;
+    }
+
+    public boolean isNumberOfCommitteesInRange(int nbCommittees) {
+        return committeeMeetingSize.contains(nbCommittees);
+    }
+
+    /**
+     * The number of past rotations of the inspection history taken into account. At least the
+     * last rotation is always needed to check the follow up rule.
+     */
+    @JsonIgnore
+    public int getNbRotationsInHistory() {
+        return Math.max(nbRotationsToReinspect, 1);
+    }
+
     public Range getNumberOfAssignmentsRange(PersonType personType) {
         if (personType.equals(PersonType.PROFESSIONAL))
             return numberOfAssignmentsForAProfessional;
@@ -1,6 +1,7 @@
 package fr.cirad.domain;
 
 import java.util.Comparator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
 
 public class Skill implements Comparable<Skill> {
@@ -8,6 +9,11 @@ public class Skill implements Comparable<Skill> {
     @PlanningId
     public String name;
 
+    // Dense ordinal given by the CanonicalRegistry of the solution, used as bit index in the
+    // person bitsets
+    @JsonIgnore
+    public int ordinal = -1;
+
     private static final Comparator<Skill> COMPARATOR = Comparator.comparing(s -> s.name);
 
     public Skill() {
@@ -25,6 +31,9 @@ public class Skill implements Comparable<Skill> {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (!(o instanceof Skill)) {
             return false;
         }
@@ -34,7 +43,8 @@ public class Skill implements Comparable<Skill> {
 
     @Override
     public int hashCode() {
-        return this.name.hashCode();
+        // consistent with equals, which ignores case
+        return CanonicalRegistry.hashName(this.name);
     }
 
     @Override
@@ -1,11 +1,40 @@
 package fr.cirad.domain;
 
 import java.util.List;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
+// Read by streaming, see SolverOptionsDeserializer
+@JsonDeserialize(using = SolverOptionsDeserializer.class)
 public class SolverOptions {
     public Settings settings;
     public List<Person> participants;
 
+    // Number of move threads asked for the multithreaded incremental solving, null for the server
+    // default, capped by the server maximum
+    public Integer moveThreadCount;
+
+    // Number of location clusters solved in parallel by a partitioned search before a global
+    // local search, null for the server default, capped by the server maximum
+    public Integer partitionCount;
+
+    // Name of the client submitting the problem, the jobs waiting for a solver are shared fairly
+    // between clients
+    public String clientId;
+
+    // Jobs with a higher priority start first, null for 0
+    public Integer priority;
+
+    // Assignments to start solving from, the other assignments start unassigned
+    public List<InitialAssignment> initialAssignments;
+
+    // Solves the problem again even when the same problem is solving or was recently solved, for
+    // another run with shuffled participants
+    public Boolean forceNewSolve;
+
+    // Refuses the request when the feasibility analysis finds hard constraints no solution can
+    // satisfy, instead of solving it
+    public Boolean refuseInfeasible;
+
     public SolverOptions() {
         // Empty constructor needed by serialization
     }
@@ -0,0 +1,296 @@
+package fr.cirad.domain;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * Streaming deserialization of the solver options, reading the participants one by one instead of
+ * binding each of them as a tree of objects. The skills, time slots, locations and person types
+ * repeated by the participants are shared instances, see CanonicalRegistry, the vetoes only keep
+ * the name of the vetoed person, and the settings of each participant are skipped, as
+ * CommitteeSolution sets them. Each participant is checked as soon as it is read, so
+ * that a bad problem is refused before the rest of it is read. The other fields are bound as
+ * Jackson does, by their public field of the same name.
+ */
+public class SolverOptionsDeserializer extends StdDeserializer<SolverOptions> {
+
+    private static final long serialVersionUID = 1L;
+
+    public SolverOptionsDeserializer() {
+        super(SolverOptions.class);
+    }
+
+    // The shared instances of a problem, by case insensitive name
+    private static class Canonical {
+        final CanonicalRegistry registry = new CanonicalRegistry();
+        final Map<String, Person> vetoedPersons = new HashMap<>();
+        final Map<String, String> names = new HashMap<>();
+        final Set<String> participantNames = new HashSet<>();
+
+        Person vetoedPerson(String name) {
+            return vetoedPersons.computeIfAbsent(CommitteeSolution.ordinalKey(name),
+                    k -> new Person(name, null));
+        }
+
+        // the names of the inspection history, repeated by each inspector
+        String name(String name) {
+            return names.computeIfAbsent(name, Function.identity());
+        }
+    }
+
+    @Override
+    public SolverOptions deserialize(JsonParser p, DeserializationContext ctxt)
+            throws IOException {
+        var options = new SolverOptions();
+        var canonical = new Canonical();
+        for (var token = startObject(p); token == JsonToken.FIELD_NAME; token =
+                p.nextToken()) {
+            var fieldName = p.getCurrentName();
+            p.nextToken();
+            switch (fieldName) {
+                case "participants":
+                    options.participants = readParticipants(p, ctxt, canonical);
+                    break;
+                case "settings":
+                    options.settings = readSettings(p, ctxt);
+                    break;
+                default:
+                    readField(p, ctxt, options, fieldName);
+            }
+        }
+        if (options.settings == null) {
+            throw JsonMappingException.from(p, "The problem must have settings.");
+        }
+        if (options.participants == null) {
+            throw JsonMappingException.from(p, "The problem must have participants.");
+        }
+        return options;
+    }
+
+    private static JsonToken startObject(JsonParser p) throws IOException {
+        var token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            return p.nextToken();
+        }
+        if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            throw JsonMappingException.from(p, "Expected an object.");
+        }
+        return token;
+    }
+
+    private static List<Person> readParticipants(JsonParser p, DeserializationContext ctxt,
+            Canonical canonical) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            throw JsonMappingException.from(p, "The participants must be an array.");
+        }
+        var participants = new ArrayList<Person>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            var person = readPerson(p, ctxt, canonical);
+            if (person.name == null || person.name.isBlank()) {
+                throw JsonMappingException.from(p,
+                        "The participant " + participants.size() + " must have a name.");
+            }
+            if (!canonical.participantNames.add(CommitteeSolution.ordinalKey(person.name))) {
+                throw JsonMappingException.from(p,
+                        "There are several participants named " + person.name + ".");
+            }
+            participants.add(person);
+        }
+        return participants;
+    }
+
+    private static Person readPerson(JsonParser p, DeserializationContext ctxt,
+            Canonical canonical) throws IOException {
+        var person = new Person();
+        for (var token = startObject(p); token == JsonToken.FIELD_NAME; token =
+                p.nextToken()) {
+            var fieldName = p.getCurrentName();
+            p.nextToken();
+            switch (fieldName) {
+                case "name":
+                    person.name = p.getValueAsString();
+                    break;
+                case "personType":
+                    var personType = readName(p);
+                    person.personType =
+                            personType != null ? canonical.registry.personType(personType)
+                                    : null;
+                    break;
+                case "skills":
+                    person.skills = readNamedList(p, canonical.registry::skill);
+                    break;
+                case "requiredSkills":
+                    person.requiredSkills = readNamedList(p, canonical.registry::skill);
+                    break;
+                case "availability":
+                    person.availability = readNamedList(p, canonical.registry::timeSlot);
+                    break;
+                case "location":
+                    var location = readName(p);
+                    person.location =
+                            location != null ? canonical.registry.location(location) : null;
+                    break;
+                case "vetoes":
+                    person.vetoes = readNamedList(p, canonical::vetoedPerson);
+                    break;
+                case "hasAlreadyInspected":
+                    person.hasAlreadyInspected = readInspectionHistory(p, canonical);
+                    break;
+                case "settings":
+                    p.skipChildren();
+                    break;
+                default:
+                    readField(p, ctxt, person, fieldName);
+            }
+        }
+        return person;
+    }
+
+    // A skill, time slot, location, person type or person, by its name or an object with a name
+    private static String readName(JsonParser p) throws IOException {
+        switch (p.currentToken()) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_STRING:
+                return p.getText();
+            case START_OBJECT:
+                String name = null;
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    var fieldName = p.getCurrentName();
+                    p.nextToken();
+                    if ("name".equals(fieldName)) {
+                        name = p.getValueAsString();
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+                return name;
+            default:
+                throw JsonMappingException.from(p, "Expected an object with a name.");
+        }
+    }
+
+    private static <T> List<T> readNamedList(JsonParser p, Function<String, T> canonical)
+            throws IOException {
+        var values = new ArrayList<T>();
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return values;
+        }
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            throw JsonMappingException.from(p, "Expected an array.");
+        }
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            values.add(canonical.apply(readName(p)));
+        }
+        return values;
+    }
+
+    private static List<List<String>> readInspectionHistory(JsonParser p, Canonical canonical)
+            throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        var rotations = new ArrayList<List<String>>();
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            throw JsonMappingException.from(p,
+                    "The inspection history must be an array of rotations.");
+        }
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            var inspected = new ArrayList<String>();
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                throw JsonMappingException.from(p, "Each rotation must be an array of names.");
+            }
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                inspected.add(canonical.name(p.getValueAsString()));
+            }
+            rotations.add(inspected);
+        }
+        return rotations;
+    }
+
+    private static Settings readSettings(JsonParser p, DeserializationContext ctxt)
+            throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        var settings = ctxt.readValue(p, Settings.class);
+        checkRange(p, "nbProParticipants", settings.nbProParticipants);
+        checkRange(p, "numberOfAssignmentsForAProfessional",
+                settings.numberOfAssignmentsForAProfessional);
+        checkRange(p, "nbNonProParticipants", settings.nbNonProParticipants);
+        checkRange(p, "numberOfAssignmentsForANonProfessional",
+                settings.numberOfAssignmentsForANonProfessional);
+        checkRange(p, "nbExternalParticipants", settings.nbExternalParticipants);
+        checkRange(p, "numberOfAssignmentsForAnExternal",
+                settings.numberOfAssignmentsForAnExternal);
+        checkRange(p, "travellingDistanceRange", settings.travellingDistanceRange);
+        checkRange(p, "committeeMeetingSize", settings.committeeMeetingSize);
+        if (settings.nbRotationsToReinspect < 0 || settings.nbInspectorsFollowingUp < 0) {
+            throw JsonMappingException.from(p, "The numbers of rotations to reinspect and of "
+                    + "inspectors following up can not be negative.");
+        }
+        return settings;
+    }
+
+    private static void checkRange(JsonParser p, String name, Range range)
+            throws JsonMappingException {
+        if (range == null) {
+            return;
+        }
+        if (range.value == null || range.value.length != 2 || range.getMin() < 0
+                || range.getMin() > range.getMax()) {
+            throw JsonMappingException.from(p, "The range " + name
+                    + " must be a minimum and a greater maximum, both positive.");
+        }
+    }
+
+    private static void readField(JsonParser p, DeserializationContext ctxt, Object bean,
+            String fieldName) throws IOException {
+        Field field;
+        try {
+            field = bean.getClass().getField(fieldName);
+        } catch (NoSuchFieldException e) {
+            field = null;
+        }
+        if (field == null || Modifier.isStatic(field.getModifiers())
+                || field.isAnnotationPresent(JsonIgnore.class)) {
+            // skipped, unless unknown properties fail
+            ctxt.handleUnknownProperty(p, null, bean, fieldName);
+            return;
+        }
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            if (!field.getType().isPrimitive()) {
+                setField(field, bean, null);
+            }
+            return;
+        }
+        setField(field, bean,
+                ctxt.readValue(p, ctxt.getTypeFactory().constructType(field.getGenericType())));
+    }
+
+    private static void setField(Field field, Object bean, Object value) {
+        try {
+            field.set(bean, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("The field " + field.getName() + " is not public.",
+                    e);
+        }
+    }
+}
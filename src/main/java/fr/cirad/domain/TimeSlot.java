@@ -1,6 +1,7 @@
 package fr.cirad.domain;
 
 import java.util.Comparator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
 
 public class TimeSlot implements Comparable<TimeSlot> {
@@ -8,7 +9,10 @@ public class TimeSlot implements Comparable<TimeSlot> {
     @PlanningId
     public String name;
 
-    private Settings settings;
+    // Dense ordinal given by the CanonicalRegistry of the solution, used as bit index in the
+    // person bitsets
+    @JsonIgnore
+    public int ordinal = -1;
 
     private static final Comparator<TimeSlot> COMPARATOR = Comparator.comparing(ts -> ts.name);
 
@@ -16,21 +20,8 @@ public class TimeSlot implements Comparable<TimeSlot> {
         // No-arg constructor required for Hibernate and OptaPlanner
     }
 
-    public TimeSlot(String name, Settings settings) {
+    public TimeSlot(String name) {
         this.name = name;
-        this.settings = settings;
-    }
-
-    public static TimeSlot copyAndSetSettings(TimeSlot t, Settings settings) {
-        return new TimeSlot(t.name, settings);
-    }
-
-    public void setSettings(Settings settings) {
-        this.settings = settings;
-    }
-
-    public boolean isNumberOfCommitteesInRange(int nbCommittees) {
-        return settings.committeeMeetingSize.contains(nbCommittees);
     }
 
     @Override
@@ -40,6 +31,9 @@ public class TimeSlot implements Comparable<TimeSlot> {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (!(o instanceof TimeSlot)) {
             return false;
         }
@@ -49,7 +43,8 @@ public class TimeSlot implements Comparable<TimeSlot> {
 
     @Override
     public int hashCode() {
-        return this.name.hashCode();
+        // consistent with equals, which ignores case
+        return CanonicalRegistry.hashName(this.name);
     }
 
     @Override
@@ -0,0 +1,23 @@
+package fr.cirad.rest;
+
+import java.util.List;
+import fr.cirad.domain.SolverOptions;
+
+/**
+ * Problems solved together, for instance one per cooperative of a federation.
+ */
+public class BatchSolveRequest {
+    public List<SolverOptions> problems;
+
+    // Time to solve all the problems, shared between their jobs, null for the solver termination
+    // of each job
+    public Long timeBudgetSeconds;
+
+    // For the problems which do not set them
+    public String clientId;
+    public Integer priority;
+
+    public BatchSolveRequest() {
+        // Empty constructor needed by serialization
+    }
+}
@@ -0,0 +1,26 @@
+package fr.cirad.rest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The progress of a batch of problems, the status of each solution being paged by
+ * GET api/committeeSolution/batch/{batchId}/results.
+ */
+public class BatchStatus {
+    public UUID id;
+    // By increasing problem size, which is the order they start in
+    public List<UUID> solutionIds;
+    public Instant deadline;
+
+    public int nbScheduled;
+    public int nbSolving;
+    public int nbSolved;
+    // Solved, or being solved, with a feasible best solution
+    public int nbFeasible;
+
+    public BatchStatus() {
+        // Empty constructor needed by serialization
+    }
+}
@@ -0,0 +1,31 @@
+package fr.cirad.rest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.SolverStatus;
+import fr.cirad.domain.CommitteeAssignment;
+
+/**
+ * Server sent event of a new best solution. It carries the assignments whose committee or
+ * committee time slot changed since the previous event, the first event of a subscription
+ * carrying all of them.
+ */
+public class BestSolutionEvent {
+    public UUID id;
+    public HardMediumSoftScore score;
+    public SolverStatus solverStatus;
+    public List<CommitteeAssignment> changedAssignments = new ArrayList<>();
+    public List<Long> removedAssignmentIds = new ArrayList<>();
+
+    public BestSolutionEvent() {
+        // Empty constructor needed by serialization
+    }
+
+    public BestSolutionEvent(UUID id, HardMediumSoftScore score, SolverStatus solverStatus) {
+        this.id = id;
+        this.score = score;
+        this.solverStatus = solverStatus;
+    }
+}
@@ -0,0 +1,144 @@
+package fr.cirad.rest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.enterprise.context.ApplicationScoped;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseBroadcaster;
+import javax.ws.rs.sse.SseEventSink;
+import org.optaplanner.core.api.solver.SolverStatus;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+
+/**
+ * Pushes the best solutions of the solving jobs to their server sent event subscribers. Only the
+ * assignments changed since the previous best solution are sent, a new subscriber first receives
+ * the whole current best solution.
+ */
+@ApplicationScoped
+public class BestSolutionPublisher {
+
+    private final Map<UUID, SolutionStream> streams = new ConcurrentHashMap<>();
+
+    // Sse is a JAX-RS context object, it is kept from the first subscription
+    private volatile Sse sse;
+
+    private static class SolutionStream {
+        CommitteeSolution bestSolution;
+        // placement of each assignment in the best solution, by assignment id
+        Map<Long, String> placements = new HashMap<>();
+        SseBroadcaster broadcaster;
+        // set by complete, a later subscriber must not register to the closed broadcaster
+        boolean closed;
+    }
+
+    // Called before solving, so that the first best solution is compared to the problem
+    public void start(CommitteeSolution solution) {
+        var stream = new SolutionStream();
+        stream.bestSolution = solution;
+        solution.committeeAssignments.forEach(a -> stream.placements.put(a.id, placement(a)));
+        streams.put(solution.id, stream);
+    }
+
+    public void subscribe(CommitteeSolution solution, SolverStatus solverStatus,
+            SseEventSink eventSink, Sse sse) {
+        this.sse = sse;
+        var stream = streams.get(solution.id);
+        if (stream == null) {
+            sendFinal(eventSink, solution, solverStatus);
+            return;
+        }
+        synchronized (stream) {
+            if (stream.closed) {
+                // completed since the stream was looked up
+                sendFinal(eventSink, stream.bestSolution, SolverStatus.NOT_SOLVING);
+                return;
+            }
+            if (stream.broadcaster == null) {
+                stream.broadcaster = sse.newBroadcaster();
+            }
+            eventSink.send(toSseEvent(snapshot(stream.bestSolution, solverStatus)));
+            stream.broadcaster.register(eventSink);
+        }
+    }
+
+    // Not solving anymore, the subscriber only gets the final solution
+    private void sendFinal(SseEventSink eventSink, CommitteeSolution solution,
+            SolverStatus solverStatus) {
+        eventSink.send(toSseEvent(snapshot(solution, solverStatus)))
+                .whenComplete((result, error) -> eventSink.close());
+    }
+
+    public void publish(CommitteeSolution bestSolution) {
+        publish(bestSolution, SolverStatus.SOLVING_ACTIVE);
+    }
+
+    // Sends the final best solution and closes the subscriptions
+    public void complete(CommitteeSolution finalBestSolution) {
+        publish(finalBestSolution, SolverStatus.NOT_SOLVING);
+        var stream = streams.remove(finalBestSolution.id);
+        if (stream != null) {
+            synchronized (stream) {
+                stream.closed = true;
+                if (stream.broadcaster != null) {
+                    stream.broadcaster.close();
+                }
+            }
+        }
+    }
+
+    private void publish(CommitteeSolution bestSolution, SolverStatus solverStatus) {
+        var stream = streams.get(bestSolution.id);
+        if (stream == null) {
+            return;
+        }
+        synchronized (stream) {
+            var event = new BestSolutionEvent(bestSolution.id, bestSolution.score, solverStatus);
+            var previousPlacements = stream.placements;
+            stream.placements = new HashMap<>(previousPlacements.size());
+            for (var assignment : bestSolution.committeeAssignments) {
+                var placement = placement(assignment);
+                stream.placements.put(assignment.id, placement);
+                if (!previousPlacements.containsKey(assignment.id)
+                        || !Objects.equals(previousPlacements.get(assignment.id), placement)) {
+                    event.changedAssignments.add(assignment);
+                }
+            }
+            for (var id : previousPlacements.keySet()) {
+                if (!stream.placements.containsKey(id)) {
+                    event.removedAssignmentIds.add(id);
+                }
+            }
+            stream.bestSolution = bestSolution;
+            if (stream.broadcaster != null) {
+                stream.broadcaster.broadcast(toSseEvent(event));
+            }
+        }
+    }
+
+    private static BestSolutionEvent snapshot(CommitteeSolution solution,
+            SolverStatus solverStatus) {
+        var event = new BestSolutionEvent(solution.id, solution.score, solverStatus);
+        event.changedAssignments.addAll(solution.committeeAssignments);
+        return event;
+    }
+
+    private OutboundSseEvent toSseEvent(BestSolutionEvent event) {
+        return sse.newEventBuilder().mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(BestSolutionEvent.class, event).build();
+    }
+
+    // The committee and its time slot, which are all that the clients display of an assignment
+    private static String placement(CommitteeAssignment assignment) {
+        if (assignment.committee == null) {
+            return null;
+        }
+        var timeSlot = assignment.committee.timeSlot;
+        return assignment.committee.id + '\n' + (timeSlot != null ? timeSlot.name : "");
+    }
+}
@@ -1,39 +1,96 @@
 package fr.cirad.rest;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.ClientErrorException;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.NotFoundException;
 import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
-import org.optaplanner.core.api.score.ScoreManager;
-import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
-import org.optaplanner.core.api.solver.SolverManager;
 import org.optaplanner.core.api.solver.SolverStatus;
+import org.optaplanner.core.api.solver.change.ProblemChange;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.Person;
 import fr.cirad.domain.SolverOptions;
-import net.jodah.expiringmap.ExpiringMap;
+import fr.cirad.domain.TimeSlot;
+import fr.cirad.solver.ConstraintProfile;
+import fr.cirad.solver.ConstraintProfiler;
+import fr.cirad.solver.FeasibilityAnalyzer;
+import fr.cirad.solver.FeasibilityReport;
+import fr.cirad.solver.PersonProblemChanges;
+import fr.cirad.solver.SolveJobScheduler;
+import fr.cirad.solver.SolverManagerRegistry;
+import fr.cirad.store.SolutionStore;
 
 @Path("api/committeeSolution")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class CommitteeSolutionResource {
 
-    static Map<UUID, CommitteeSolution> solutions =
-            ExpiringMap.builder().maxSize(50).expiration(1, TimeUnit.DAYS).build();
+    // How long a person change waits for the solver to apply it before answering
+    private static final long PROBLEM_CHANGE_TIMEOUT_SECONDS = 30;
 
     @Inject
-    SolverManager<CommitteeSolution, UUID> solverManager;
+    SolutionStore solutionStore;
 
     @Inject
-    ScoreManager<CommitteeSolution, HardMediumSoftScore> scoreManager;
+    SolverManagerRegistry solverManagers;
+
+    @Inject
+    SolveJobScheduler solveJobScheduler;
+
+    @Inject
+    ScoreExplanationCache scoreExplanationCache;
+
+    @Inject
+    BestSolutionPublisher bestSolutionPublisher;
+
+    @Inject
+    SolveRequestCache solveRequestCache;
+
+    @Inject
+    SolverTelemetry solverTelemetry;
+
+    @Inject
+    SolveBatches solveBatches;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    // The profiling replays moves on the request thread, hence it is disabled by default
+    @ConfigProperty(name = "dicoop.profiling.enabled", defaultValue = "false")
+    boolean profilingEnabled;
+
+    @ConfigProperty(name = "dicoop.profiling.max-moves", defaultValue = "100000")
+    int maxProfilingMoves;
 
     @Inject
     Logger log;
@@ -45,49 +102,446 @@ public class CommitteeSolutionResource {
         // to avoid the race condition that the solver terminates between them
         SolverStatus solverStatus = getSolverStatus(id);
         CommitteeSolution solution = findById(id);
-        scoreManager.updateScore(solution); // Sets the score
+        solution.score = scoreExplanationCache.getScore(solution);
         solution.solverStatus = solverStatus;
-        var scoreExplanation = scoreManager.explainScore(solution);
-        log.info(scoreExplanation);
-        solution.scoreExplanation = scoreExplanation.toString();
+        solution.scoreExplanation = scoreExplanationCache.getScoreExplanation(solution);
         return solution;
     }
 
+    // Same as getSolution without the assignments and the score explanation, for polling
+    @GET
+    @Path("/{id}/status")
+    public SolutionStatus getSolutionStatus(@PathParam(value = "id") UUID id) {
+        SolverStatus solverStatus = getSolverStatus(id);
+        CommitteeSolution solution = findById(id);
+        var status = new SolutionStatus(id, solution.version, solverStatus,
+                scoreExplanationCache.getScore(solution));
+        solveJobScheduler.getScheduledStart(id).ifPresent(scheduledStart -> {
+            status.queuePosition = scheduledStart.position;
+            status.estimatedStartTime = scheduledStart.estimatedStartTime;
+        });
+        return status;
+    }
+
+    // The problem, best score progression and solver metrics of a recent solving job
+    @GET
+    @Path("/{id}/telemetry")
+    public SolveTelemetry getTelemetry(@PathParam(value = "id") UUID id) {
+        return solverTelemetry.get(id).orElseThrow(
+                () -> new NotFoundException("There is no telemetry of the solution " + id + "."));
+    }
+
+    // Score calculation time of each constraint alone on the current best solution
+    @GET
+    @Path("/{id}/constraintProfile")
+    public ConstraintProfile getConstraintProfile(@PathParam(value = "id") UUID id,
+            @QueryParam("nbMoves") @DefaultValue("10000") int nbMoves,
+            @QueryParam("seed") @DefaultValue("0") long seed) {
+        if (!profilingEnabled) {
+            throw new ClientErrorException(
+                    "The constraint profiling is disabled, see dicoop.profiling.enabled.",
+                    Response.Status.FORBIDDEN);
+        }
+        if (nbMoves < 0 || nbMoves > maxProfilingMoves) {
+            throw new BadRequestException(
+                    "The number of moves must be between 0 and " + maxProfilingMoves + ".");
+        }
+        return new ConstraintProfiler(findById(id), nbMoves, seed).profile();
+    }
+
+    // Hard constraints the problem can never satisfy, found in milliseconds without solving
+    @POST
+    @Path("analyze")
+    public FeasibilityReport analyze(SolverOptions options) {
+        return new FeasibilityAnalyzer(new CommitteeSolution(UUID.randomUUID(), options))
+                .analyze();
+    }
+
     @POST
     @Path("solve")
     public CommitteeSolution solve(SolverOptions options) {
-        var solution = initSolution(options);
-        solverManager.solveAndListen(solution.id, this::findById, this::save);
+        checkScheduling(options);
+        var id = UUID.randomUUID();
+        // before the analysis, as creating a solution initializes the options
+        var digest = solveRequestCache.digest(options);
+        CommitteeSolution solution = null;
+        if (Boolean.TRUE.equals(options.refuseInfeasible)) {
+            // the analysed solution is the one solved, it is only kept if it is feasible
+            solution = createSolution(id, options);
+            var report = new FeasibilityAnalyzer(solution).analyze();
+            if (!report.feasible) {
+                solutionStore.delete(id);
+                log.infof("Infeasible problem refused: %s", report.diagnostics);
+                throw new BadRequestException(
+                        Response.status(Response.Status.BAD_REQUEST).entity(report).build());
+            }
+        }
+        if (Boolean.TRUE.equals(options.forceNewSolve)) {
+            solveRequestCache.put(digest, id);
+        } else {
+            var existingId = solveRequestCache.putIfAbsent(digest, id);
+            if (existingId.isPresent()) {
+                if (solutionStore.find(existingId.get()).isPresent()) {
+                    if (solution != null) {
+                        solutionStore.delete(id);
+                    }
+                    log.infof("Same problem as solution %s, which is given instead of solving.",
+                            existingId.get());
+                    return getSolution(existingId.get());
+                }
+                solveRequestCache.put(digest, id);
+            }
+        }
+        if (solution == null) {
+            solution = createSolution(id, options);
+        }
+        solutionStore.save(solution);
+        bestSolutionPublisher.start(solution);
+        solverTelemetry.submitted(solution, options);
+        var submitted = solveJobScheduler.submit(solution.id, options,
+                startSolving(solution.id, options, () -> {
+                }));
+        if (!submitted) {
+            refused(solution);
+            throw new ServiceUnavailableException(
+                    "Too many solutions are waiting to be solved, please try again later.");
+        }
         return solution;
     }
 
+    // Solves the problems of several cooperatives with a shared time budget, see SolveBatches
+    @POST
+    @Path("batch")
+    public BatchStatus solveBatch(BatchSolveRequest request) {
+        if (request == null || request.problems == null || request.problems.isEmpty()) {
+            throw new BadRequestException("The batch must have problems.");
+        }
+        if (request.problems.size() > solveBatches.getMaxBatchSize()) {
+            throw new BadRequestException(
+                    "A batch can have at most " + solveBatches.getMaxBatchSize() + " problems.");
+        }
+        if (request.timeBudgetSeconds != null && request.timeBudgetSeconds <= 0) {
+            throw new BadRequestException("The time budget must be positive.");
+        }
+        // the smallest problems first, so that most of them are solved when the budget is short
+        var problems = new ArrayList<>(request.problems);
+        problems.sort(Comparator.comparingInt(
+                options -> options.participants != null ? options.participants.size() : 0));
+        // all the problems are checked before any is saved
+        for (var options : problems) {
+            if (options.clientId == null) {
+                options.clientId = request.clientId;
+            }
+            if (options.priority == null) {
+                options.priority = request.priority;
+            }
+            checkScheduling(options);
+        }
+        var optionsById = new LinkedHashMap<UUID, SolverOptions>();
+        var solutions = new ArrayList<CommitteeSolution>();
+        for (var options : problems) {
+            // one solving slot per problem: solving more problems at once uses the cores better
+            // than move threads or partitions on each problem
+            options.moveThreadCount = 1;
+            options.partitionCount = 1;
+            var solution = initSolution(UUID.randomUUID(), options);
+            bestSolutionPublisher.start(solution);
+            solverTelemetry.submitted(solution, options);
+            optionsById.put(solution.id, options);
+            solutions.add(solution);
+        }
+        var batch = solveBatches.create(List.copyOf(optionsById.keySet()),
+                request.timeBudgetSeconds);
+        var submitted = solveJobScheduler.submitAll(optionsById,
+                id -> startSolving(id, optionsById.get(id),
+                        () -> solveBatches.started(batch, id, this::terminateEarly)));
+        if (!submitted) {
+            solutions.forEach(this::refused);
+            solveBatches.remove(batch.id);
+            throw new ServiceUnavailableException(
+                    "Too many solutions are waiting to be solved, please try again later.");
+        }
+        log.infof("Batch %s of %d problems submitted.", batch.id, solutions.size());
+        return getBatchStatus(batch.id);
+    }
+
+    @GET
+    @Path("batch/{batchId}")
+    public BatchStatus getBatchStatus(@PathParam(value = "batchId") UUID batchId) {
+        var batch = getBatch(batchId);
+        var status = new BatchStatus();
+        status.id = batch.id;
+        status.solutionIds = batch.solutionIds;
+        status.deadline = batch.deadline;
+        for (var id : batch.solutionIds) {
+            var solverStatus = getSolverStatus(id);
+            if (solverStatus == SolverStatus.SOLVING_SCHEDULED) {
+                status.nbScheduled++;
+                continue;
+            }
+            if (solverStatus == SolverStatus.SOLVING_ACTIVE) {
+                status.nbSolving++;
+            } else {
+                status.nbSolved++;
+            }
+            var score = scoreExplanationCache.getScore(findById(id));
+            if (score != null && score.isFeasible()) {
+                status.nbFeasible++;
+            }
+        }
+        return status;
+    }
+
+    // The status of the solutions of a batch, by page in the order of BatchStatus.solutionIds
+    @GET
+    @Path("batch/{batchId}/results")
+    public List<SolutionStatus> getBatchResults(@PathParam(value = "batchId") UUID batchId,
+            @QueryParam("page") @DefaultValue("0") int page,
+            @QueryParam("pageSize") @DefaultValue("20") int pageSize) {
+        if (page < 0 || pageSize <= 0) {
+            throw new BadRequestException("The page must be positive and the page size not zero.");
+        }
+        return getBatch(batchId).solutionIds.stream().skip((long) page * pageSize)
+                .limit(pageSize).map(this::getSolutionStatus).collect(Collectors.toList());
+    }
+
+    @GET
+    @Path("batch/stopSolving/{batchId}")
+    public String stopBatch(@PathParam(value = "batchId") UUID batchId) {
+        getBatch(batchId).solutionIds.forEach(this::stopSolving);
+        return "The solving batch " + batchId + " has been terminated.";
+    }
+
+    private SolveBatches.SolveBatch getBatch(UUID batchId) {
+        return solveBatches.get(batchId).orElseThrow(
+                () -> new NotFoundException("There is no batch with id (" + batchId + ")."));
+    }
+
+    // Run by the job scheduler, afterStart is called once the solver manager has the job
+    private Runnable startSolving(UUID id, SolverOptions options, Runnable afterStart) {
+        return () -> {
+            solverTelemetry.started(id);
+            solverManagers.getSolverManager(options).solveAndListen(id, this::findById,
+                    this::saveAndPublish, this::saveAndComplete, this::handleSolvingError);
+            afterStart.run();
+        };
+    }
+
+    // A solution the job scheduler could not queue
+    private void refused(CommitteeSolution solution) {
+        solveRequestCache.invalidate(solution.id);
+        bestSolutionPublisher.complete(solution);
+        solverTelemetry.finished(solution.id);
+    }
+
+    // Streams the best solutions of a solving job, see BestSolutionPublisher
+    @GET
+    @Path("/{id}/events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void events(@PathParam(value = "id") UUID id, @Context SseEventSink eventSink,
+            @Context Sse sse) {
+        SolverStatus solverStatus = getSolverStatus(id);
+        bestSolutionPublisher.subscribe(findById(id), solverStatus, eventSink, sse);
+    }
+
     @GET
     @Path("stopSolving/{id}")
     public String stopSolving(@PathParam(value = "id") UUID id) {
-        solverManager.terminateEarly(id);
+        // solving the same problem again starts another solve
+        solveRequestCache.invalidate(id);
+        if (solveJobScheduler.cancel(id)) {
+            bestSolutionPublisher.complete(findById(id));
+            solverTelemetry.finished(id);
+        } else {
+            terminateEarly(id);
+        }
         return "The solving solution " + id + " has been terminated.";
     }
 
-    CommitteeSolution initSolution(SolverOptions options) {
-        var solution = new CommitteeSolution(UUID.randomUUID(), options);
-        solutions.put(solution.id, solution);
+    // A job still waiting for a solver thread is cancelled without its final best solution, so
+    // it is completed here
+    private void terminateEarly(UUID id) {
+        if (solverManagers.terminateEarly(id)) {
+            complete(findById(id));
+        }
+    }
+
+    // The person changes below are applied to a solution being solved, the solver going on from
+    // its best solution, and saved in the problem of the solution
+
+    @POST
+    @Path("/{id}/persons")
+    public SolutionStatus addPerson(@PathParam(value = "id") UUID id, Person person) {
+        if (person == null || person.name == null || person.name.isBlank()) {
+            throw new BadRequestException("The person must have a name.");
+        }
+        var solution = findById(id);
+        if (solution.persons.stream().anyMatch(p -> p.name.equalsIgnoreCase(person.name))) {
+            throw new BadRequestException("There is already a person named " + person.name + ".");
+        }
+        // the solver initializes the person it adds, the saved problem gets it as it was given
+        var savedPerson = objectMapper.convertValue(person, Person.class);
+        return changePersons(id, options -> options.participants.add(savedPerson),
+                PersonProblemChanges.addPerson(person));
+    }
+
+    @DELETE
+    @Path("/{id}/persons/{name}")
+    public SolutionStatus removePerson(@PathParam(value = "id") UUID id,
+            @PathParam(value = "name") String name) {
+        checkPerson(id, name);
+        return changePersons(id,
+                options -> options.participants.removeIf(p -> p.name.equalsIgnoreCase(name)),
+                PersonProblemChanges.removePerson(name));
+    }
+
+    @PUT
+    @Path("/{id}/persons/{name}/needsEvaluation")
+    public SolutionStatus setNeedsEvaluation(@PathParam(value = "id") UUID id,
+            @PathParam(value = "name") String name, boolean needsEvaluation) {
+        checkPerson(id, name);
+        return changePersons(id,
+                options -> getPerson(options, name).needsEvaluation = needsEvaluation,
+                PersonProblemChanges.setNeedsEvaluation(name, needsEvaluation));
+    }
+
+    @PUT
+    @Path("/{id}/persons/{name}/vetoes")
+    public SolutionStatus setVetoes(@PathParam(value = "id") UUID id,
+            @PathParam(value = "name") String name, List<String> vetoedPersonNames) {
+        checkPerson(id, name);
+        return changePersons(id, options -> {
+            var person = getPerson(options, name);
+            person.vetoes = vetoedPersonNames.stream()
+                    .map(vetoed -> new Person(vetoed, null))
+                    .collect(Collectors.toList());
+        }, PersonProblemChanges.setVetoes(name, vetoedPersonNames));
+    }
+
+    @PUT
+    @Path("/{id}/persons/{name}/availability")
+    public SolutionStatus setAvailability(@PathParam(value = "id") UUID id,
+            @PathParam(value = "name") String name, List<String> timeSlotNames) {
+        checkPerson(id, name);
+        return changePersons(id, options -> getPerson(options, name).availability =
+                timeSlotNames.stream().map(TimeSlot::new).collect(Collectors.toList()),
+                PersonProblemChanges.setAvailability(name, timeSlotNames));
+    }
+
+    // The priority and the client id are given by the clients, see SolveJobScheduler
+    private static void checkScheduling(SolverOptions options) {
+        if (options.priority != null && (options.priority < SolveJobScheduler.MIN_PRIORITY
+                || options.priority > SolveJobScheduler.MAX_PRIORITY)) {
+            throw new BadRequestException("The priority must be between "
+                    + SolveJobScheduler.MIN_PRIORITY + " and " + SolveJobScheduler.MAX_PRIORITY
+                    + ".");
+        }
+        if (options.clientId != null
+                && options.clientId.length() > SolveJobScheduler.MAX_CLIENT_ID_LENGTH) {
+            throw new BadRequestException("The client id can have at most "
+                    + SolveJobScheduler.MAX_CLIENT_ID_LENGTH + " characters.");
+        }
+    }
+
+    private void checkPerson(UUID id, String name) {
+        if (findById(id).persons.stream().noneMatch(p -> p.name.equalsIgnoreCase(name))) {
+            throw new NotFoundException("There is no person named " + name + ".");
+        }
+    }
+
+    private static Person getPerson(SolverOptions options, String name) {
+        return options.participants.stream().filter(p -> p.name.equalsIgnoreCase(name))
+                .findFirst().orElseThrow(
+                        () -> new NotFoundException("There is no person named " + name + "."));
+    }
+
+    // The problem is saved once the solver has applied the change, so that a solution loaded again
+    // from its saved problem has the persons of its saved assignments. A solution still waiting in
+    // the job scheduler can not be changed yet.
+    private SolutionStatus changePersons(UUID id, Consumer<SolverOptions> problemUpdate,
+            ProblemChange<CommitteeSolution> problemChange) {
+        if (solverManagers.getSolverStatus(id) == SolverStatus.NOT_SOLVING) {
+            throw new ClientErrorException("The solution " + id + " is not being solved.",
+                    Response.Status.CONFLICT);
+        }
+        CompletableFuture<Void> change;
+        try {
+            change = solverManagers.addProblemChange(id, problemChange).thenRunAsync(() -> {
+                solutionStore.updateProblem(id, problemUpdate);
+                solveRequestCache.invalidate(id);
+            });
+        } catch (IllegalStateException e) {
+            // the solving ended since the status was checked
+            throw new ClientErrorException(e.getMessage(), Response.Status.CONFLICT);
+        }
+        try {
+            change.get(PROBLEM_CHANGE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The change of " + id + " failed.", e.getCause());
+        } catch (TimeoutException e) {
+            // the problem is still saved if the solver applies the change later
+            throw new ServiceUnavailableException("The change of " + id
+                    + " is not applied yet, get the solution later to check it.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while changing " + id + ".", e);
+        }
+        return getSolutionStatus(id);
+    }
+
+    CommitteeSolution initSolution(UUID id, SolverOptions options) {
+        var solution = createSolution(id, options);
+        solutionStore.save(solution);
         return solution;
     }
 
+    // The problem is saved first, as creating the solution initializes the options
+    private CommitteeSolution createSolution(UUID id, SolverOptions options) {
+        solutionStore.saveProblem(id, options);
+        return new CommitteeSolution(id, options);
+    }
+
     SolverStatus getSolverStatus(UUID id) {
-        return solverManager.getSolverStatus(id);
+        if (solveJobScheduler.isScheduled(id)) {
+            return SolverStatus.SOLVING_SCHEDULED;
+        }
+        return solverManagers.getSolverStatus(id);
     }
 
     @Transactional
     CommitteeSolution findById(UUID id) {
-        if (!solutions.containsKey(id)) {
-            throw new IllegalStateException("There is no solution with id (" + id + ").");
-        }
-        return solutions.get(id);
+        return solutionStore.find(id).orElseThrow(
+                () -> new IllegalStateException("There is no solution with id (" + id + ")."));
     }
 
+    // The store gives the solution its next version
     @Transactional
     void save(CommitteeSolution solution) {
-        solutions.put(solution.id, solution);
+        solutionStore.save(solution);
+    }
+
+    void saveAndPublish(CommitteeSolution solution) {
+        save(solution);
+        bestSolutionPublisher.publish(solution);
+        solverTelemetry.bestSolution(solution);
+    }
+
+    void saveAndComplete(CommitteeSolution solution) {
+        save(solution);
+        complete(solution);
+    }
+
+    // Once per job, by the first of its final best solution and its early termination
+    private void complete(CommitteeSolution solution) {
+        if (solveJobScheduler.finished(solution.id)) {
+            bestSolutionPublisher.complete(solution);
+            solverTelemetry.finished(solution.id);
+        }
+    }
+
+    void handleSolvingError(UUID id, Throwable error) {
+        log.error("Solving " + id + " failed.", error);
+        solveRequestCache.invalidate(id);
+        complete(findById(id));
     }
 }
@@ -0,0 +1,21 @@
+package fr.cirad.rest;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+/**
+ * Refuses a request body which can not be read, for instance a problem refused by
+ * SolverOptionsDeserializer, with what is wrong and where in the body.
+ */
+@Provider
+public class JsonMappingExceptionMapper implements ExceptionMapper<JsonMappingException> {
+
+    @Override
+    public Response toResponse(JsonMappingException exception) {
+        return Response.status(Response.Status.BAD_REQUEST).type(MediaType.TEXT_PLAIN)
+                .entity(exception.getMessage()).build();
+    }
+}
@@ -0,0 +1,73 @@
+package fr.cirad.rest;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.jboss.logging.Logger;
+import org.optaplanner.core.api.score.ScoreManager;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import com.google.common.cache.CacheBuilder;
+import fr.cirad.domain.CommitteeSolution;
+
+/**
+ * Score and score explanation of the last version of each solution, so that polling a solution
+ * which did not change does not calculate them again.
+ */
+@ApplicationScoped
+public class ScoreExplanationCache {
+
+    private final ConcurrentMap<UUID, ScoredVersion> scoredVersions = CacheBuilder.newBuilder()
+            .maximumSize(50).expireAfterAccess(1, TimeUnit.DAYS)
+            .<UUID, ScoredVersion>build().asMap();
+
+    @Inject
+    ScoreManager<CommitteeSolution, HardMediumSoftScore> scoreManager;
+
+    @Inject
+    Logger log;
+
+    private static class ScoredVersion {
+        final long version;
+        HardMediumSoftScore score;
+        String scoreExplanation;
+
+        ScoredVersion(long version) {
+            this.version = version;
+        }
+    }
+
+    public HardMediumSoftScore getScore(CommitteeSolution solution) {
+        var scoredVersion = getScoredVersion(solution);
+        synchronized (scoredVersion) {
+            if (scoredVersion.score == null) {
+                // the best solutions of the solver already have their score
+                scoredVersion.score = solution.score != null ? solution.score
+                        : scoreManager.updateScore(solution);
+            }
+            return scoredVersion.score;
+        }
+    }
+
+    public String getScoreExplanation(CommitteeSolution solution) {
+        var scoredVersion = getScoredVersion(solution);
+        synchronized (scoredVersion) {
+            if (scoredVersion.scoreExplanation == null) {
+                var scoreExplanation = scoreManager.explainScore(solution);
+                scoredVersion.score = scoreExplanation.getScore();
+                scoredVersion.scoreExplanation = scoreExplanation.toString();
+                log.debugf("Score explanation of solution %s version %d:%n%s", solution.id,
+                        solution.version, scoredVersion.scoreExplanation);
+            }
+            return scoredVersion.scoreExplanation;
+        }
+    }
+
+    private ScoredVersion getScoredVersion(CommitteeSolution solution) {
+        return scoredVersions.compute(solution.id,
+                (id, scoredVersion) -> scoredVersion != null
+                        && scoredVersion.version == solution.version ? scoredVersion
+                                : new ScoredVersion(solution.version));
+    }
+}
@@ -0,0 +1,75 @@
+package fr.cirad.rest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.optaplanner.core.api.solver.SolverStatus;
+import fr.cirad.solver.SolveJobScheduler;
+import fr.cirad.solver.SolverManagerRegistry;
+import fr.cirad.store.SolutionStore;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Deletes the saved solutions which were not saved again for dicoop.store.retention, every hour
+ * from the start. The solutions being solved or waiting in the job scheduler are kept.
+ */
+@ApplicationScoped
+public class SolutionRetention {
+
+    private static final Duration SWEEP_INTERVAL = Duration.ofHours(1);
+
+    @ConfigProperty(name = "dicoop.store.retention", defaultValue = "P30D")
+    Duration retention;
+
+    @Inject
+    SolutionStore solutionStore;
+
+    @Inject
+    SolverManagerRegistry solverManagers;
+
+    @Inject
+    SolveJobScheduler solveJobScheduler;
+
+    @Inject
+    Logger log;
+
+    Clock clock = Clock.systemUTC();
+
+    private ScheduledExecutorService sweeps;
+
+    void start(@Observes StartupEvent event) {
+        sweeps = Executors.newSingleThreadScheduledExecutor();
+        sweeps.scheduleWithFixedDelay(this::sweep, 0, SWEEP_INTERVAL.toMinutes(),
+                TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void close() {
+        if (sweeps != null) {
+            sweeps.shutdownNow();
+        }
+    }
+
+    void sweep() {
+        try {
+            solutionStore.deleteSavedBefore(clock.instant().minus(retention), this::isInUse);
+        } catch (RuntimeException e) {
+            // the next sweep tries again
+            log.warn("The expired solutions can not be deleted.", e);
+        }
+    }
+
+    private boolean isInUse(UUID id) {
+        return solveJobScheduler.isScheduled(id)
+                || solverManagers.getSolverStatus(id) != SolverStatus.NOT_SOLVING;
+    }
+}
@@ -0,0 +1,33 @@
+package fr.cirad.rest;
+
+import java.time.Instant;
+import java.util.UUID;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.SolverStatus;
+
+/**
+ * The solver status and score of a solution, without its assignments and score explanation.
+ */
+public class SolutionStatus {
+    public UUID id;
+    public long version;
+    public SolverStatus solverStatus;
+    public HardMediumSoftScore score;
+
+    // While the solution waits for a solver, its position in the queue, 0 being the next one to
+    // start, and when it should start
+    public Integer queuePosition;
+    public Instant estimatedStartTime;
+
+    public SolutionStatus() {
+        // Empty constructor needed by serialization
+    }
+
+    public SolutionStatus(UUID id, long version, SolverStatus solverStatus,
+            HardMediumSoftScore score) {
+        this.id = id;
+        this.version = version;
+        this.solverStatus = solverStatus;
+        this.score = score;
+    }
+}
@@ -0,0 +1,119 @@
+package fr.cirad.rest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import com.google.common.cache.CacheBuilder;
+import fr.cirad.solver.SolveJobScheduler;
+
+/**
+ * The batches of problems solved together, kept for a day after their last access. The time
+ * budget of a batch is shared by its jobs when they start: each job gets the time left until the
+ * deadline of the batch divided by the number of waves of jobs still to solve, the solving slots
+ * of the scheduler solving a wave at once. A job ending before its time leaves it to the next
+ * ones, and the solver termination still applies within the time of each job.
+ */
+@ApplicationScoped
+public class SolveBatches {
+
+    // Each job runs at least its construction heuristic, even past the deadline
+    static final Duration MIN_JOB_TIME = Duration.ofSeconds(10);
+
+    @ConfigProperty(name = "dicoop.batch.max-size", defaultValue = "50")
+    int maxBatchSize;
+
+    @Inject
+    SolveJobScheduler solveJobScheduler;
+
+    Clock clock = Clock.systemUTC();
+
+    private ConcurrentMap<UUID, SolveBatch> batches;
+
+    private ScheduledExecutorService terminations;
+
+    /**
+     * The solutions of a batch, by increasing size, and the deadline of its time budget, null
+     * when the jobs only stop on the solver termination.
+     */
+    public static class SolveBatch {
+        public final UUID id;
+        public final List<UUID> solutionIds;
+        public final Instant deadline;
+
+        SolveBatch(UUID id, List<UUID> solutionIds, Instant deadline) {
+            this.id = id;
+            this.solutionIds = solutionIds;
+            this.deadline = deadline;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        batches = CacheBuilder.newBuilder().expireAfterAccess(1, TimeUnit.DAYS)
+                .<UUID, SolveBatch>build().asMap();
+        terminations = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @PreDestroy
+    void close() {
+        terminations.shutdownNow();
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public SolveBatch create(List<UUID> solutionIds, Long timeBudgetSeconds) {
+        var deadline = timeBudgetSeconds != null
+                ? clock.instant().plusSeconds(timeBudgetSeconds)
+                : null;
+        var batch = new SolveBatch(UUID.randomUUID(), List.copyOf(solutionIds), deadline);
+        batches.put(batch.id, batch);
+        return batch;
+    }
+
+    public Optional<SolveBatch> get(UUID batchId) {
+        return Optional.ofNullable(batches.get(batchId));
+    }
+
+    public void remove(UUID batchId) {
+        batches.remove(batchId);
+    }
+
+    /**
+     * Called when a job of the batch has started solving, to terminate it early once its share
+     * of the time budget is spent.
+     */
+    public void started(SolveBatch batch, UUID solutionId, Consumer<UUID> terminateEarly) {
+        getJobTime(batch, solutionId).ifPresent(jobTime -> terminations.schedule(
+                () -> terminateEarly.accept(solutionId), jobTime.toMillis(),
+                TimeUnit.MILLISECONDS));
+    }
+
+    Optional<Duration> getJobTime(SolveBatch batch, UUID solutionId) {
+        if (batch.deadline == null) {
+            return Optional.empty();
+        }
+        // the job itself and the jobs of the batch still waiting for a solver
+        long nbJobsLeft = 1 + batch.solutionIds.stream()
+                .filter(id -> !id.equals(solutionId) && solveJobScheduler.isScheduled(id))
+                .count();
+        int maxConcurrentSolves = Math.max(1, solveJobScheduler.getMaxConcurrentSolves());
+        long nbWaves = (nbJobsLeft + maxConcurrentSolves - 1) / maxConcurrentSolves;
+        var jobTime = Duration.between(clock.instant(), batch.deadline).dividedBy(nbWaves);
+        return Optional.of(jobTime.compareTo(MIN_JOB_TIME) > 0 ? jobTime : MIN_JOB_TIME);
+    }
+}
@@ -0,0 +1,103 @@
+package fr.cirad.rest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import fr.cirad.domain.Person;
+import fr.cirad.domain.SolverOptions;
+
+/**
+ * Solutions of the recent solve requests by digest of their problem, so that submitting the same
+ * problem again, by importing the same file twice or double-clicking solve, gives the solution
+ * already solving or solved instead of starting another solve.
+ */
+@ApplicationScoped
+public class SolveRequestCache {
+
+    @ConfigProperty(name = "dicoop.solve-cache.expiry", defaultValue = "1h")
+    Duration expiry;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private ObjectMapper canonicalMapper;
+    private ConcurrentMap<String, UUID> solutionIds;
+
+    // The settings of the persons are the ones of the problem
+    @JsonIgnoreProperties({"settings"})
+    abstract static class CanonicalPerson {
+    }
+
+    // What defines the problem, without how it is solved
+    static class CanonicalProblem {
+        public Object settings;
+        public Object participants;
+        public Object initialAssignments;
+    }
+
+    @PostConstruct
+    void init() {
+        canonicalMapper = objectMapper.copy()
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+                .addMixIn(Person.class, CanonicalPerson.class);
+        solutionIds = CacheBuilder.newBuilder().maximumSize(1_000).expireAfterWrite(expiry)
+                .<String, UUID>build().asMap();
+    }
+
+    /**
+     * Digest of the problem of the options: the settings, the participants whatever their order
+     * and the initial assignments. It must be computed before a solution is created from the
+     * options, as creating the solution initializes them.
+     */
+    public String digest(SolverOptions options) {
+        var problem = new CanonicalProblem();
+        problem.settings = options.settings;
+        if (options.participants != null) {
+            var participants = new ArrayList<>(options.participants);
+            participants.sort(Comparator.comparing(p -> p.name != null
+                    ? p.name.toLowerCase(Locale.ROOT) : ""));
+            problem.participants = participants;
+        }
+        problem.initialAssignments = options.initialAssignments;
+        try {
+            return Hashing.sha256().hashBytes(canonicalMapper.writeValueAsBytes(problem))
+                    .toString();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("The solver options can not be serialized.", e);
+        }
+    }
+
+    /**
+     * Registers the solution id for the digest, unless a solution is already registered.
+     *
+     * @return The id of the solution already registered for the same problem.
+     */
+    public Optional<UUID> putIfAbsent(String digest, UUID solutionId) {
+        return Optional.ofNullable(solutionIds.putIfAbsent(digest, solutionId));
+    }
+
+    public void put(String digest, UUID solutionId) {
+        solutionIds.put(digest, solutionId);
+    }
+
+    // For a solution whose problem changed, or whose solving failed or was cancelled
+    public void invalidate(UUID solutionId) {
+        solutionIds.values().removeIf(solutionId::equals);
+    }
+}
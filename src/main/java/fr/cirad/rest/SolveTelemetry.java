@@ -0,0 +1,57 @@
+package fr.cirad.rest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+
+/**
+ * What a solving job solves, how it is solved and how its best score progresses.
+ */
+public class SolveTelemetry {
+    public UUID id;
+
+    public int nbPersons;
+    public int nbCommittees;
+    public int nbAssignments;
+    // The tags of the solver metrics of the job
+    public String problemSize;
+    public String settingsProfile;
+
+    public int moveThreadCount;
+    public int partitionCount;
+
+    public Instant submittedTime;
+    // Null while the job waits for a solver
+    public Instant startTime;
+    public Instant endTime;
+
+    // From the start of the solving, null until a best solution is feasible
+    public Long timeToFeasibleMillis;
+
+    // Read from the OptaPlanner solver metrics, null until they are available
+    public Long scoreCalculationCount;
+    public Long scoreCalculationSpeed;
+
+    // The first best scores, by time from the start of the solving
+    public List<BestScore> bestScores = new ArrayList<>();
+
+    public static class BestScore {
+        public long timeMillis;
+        public HardMediumSoftScore score;
+
+        public BestScore() {
+            // Empty constructor needed by serialization
+        }
+
+        public BestScore(long timeMillis, HardMediumSoftScore score) {
+            this.timeMillis = timeMillis;
+            this.score = score;
+        }
+    }
+
+    public SolveTelemetry() {
+        // Empty constructor needed by serialization
+    }
+}
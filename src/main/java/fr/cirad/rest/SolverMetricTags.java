@@ -0,0 +1,38 @@
+package fr.cirad.rest;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Singleton;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.config.MeterFilter;
+
+/**
+ * Adds the tags of a solving job to the OptaPlanner solver metrics, which the solver manager only
+ * tags with the problem id. Quarkus applies the MeterFilter beans to its registries, so the tags
+ * must be known before the solver registers its meters, when the job starts solving.
+ */
+@Singleton
+public class SolverMetricTags implements MeterFilter {
+
+    // Tag set by the OptaPlanner solver manager on the metrics of each solver
+    static final String PROBLEM_ID_TAG = "problem.id";
+
+    private final Map<String, Tags> tagsByProblemId = new ConcurrentHashMap<>();
+
+    public void put(UUID problemId, Tags tags) {
+        tagsByProblemId.put(problemId.toString(), tags);
+    }
+
+    public void remove(UUID problemId) {
+        tagsByProblemId.remove(problemId.toString());
+    }
+
+    @Override
+    public Meter.Id map(Meter.Id id) {
+        var problemId = id.getTag(PROBLEM_ID_TAG);
+        var tags = problemId != null ? tagsByProblemId.get(problemId) : null;
+        return tags != null ? id.withTags(tags) : id;
+    }
+}
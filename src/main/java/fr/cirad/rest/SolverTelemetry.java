@@ -0,0 +1,195 @@
+package fr.cirad.rest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import com.google.common.cache.CacheBuilder;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.Settings;
+import fr.cirad.domain.SolverOptions;
+import fr.cirad.solver.SolveJobScheduler;
+import fr.cirad.solver.SolverManagerRegistry;
+import fr.cirad.store.SolutionStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Telemetry of the solving jobs, kept for the last jobs, and the server metrics exported on the
+ * Prometheus endpoint: the active and queued jobs, the solutions of the store and the time to the
+ * first feasible solution. The solver metrics of solverConfig.xml are tagged with the problem
+ * size and settings profile of their job, so that the jobs of similar problems can be compared.
+ */
+@ApplicationScoped
+public class SolverTelemetry {
+
+    static final String PROBLEM_SIZE_TAG = "problem.size";
+    static final String SETTINGS_PROFILE_TAG = "settings.profile";
+    static final String TIME_TO_FEASIBLE = "dicoop.solver.time.to.feasible";
+
+    // Meter of the OptaPlanner SCORE_CALCULATION_COUNT solver metric
+    static final String SCORE_CALCULATION_COUNT = "optaplanner.solver.score.calculation.count";
+
+    // The first best scores of a job, the next ones are only counted by the solver metrics
+    private static final int MAX_BEST_SCORES = 1_000;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    SolverMetricTags solverMetricTags;
+
+    @Inject
+    SolveJobScheduler solveJobScheduler;
+
+    @Inject
+    SolverManagerRegistry solverManagers;
+
+    @Inject
+    SolutionStore solutionStore;
+
+    Clock clock = Clock.systemUTC();
+
+    private ConcurrentMap<UUID, SolveTelemetry> jobs;
+
+    @PostConstruct
+    void init() {
+        jobs = CacheBuilder.newBuilder().maximumSize(1_000).<UUID, SolveTelemetry>build().asMap();
+    }
+
+    void registerGauges(@Observes StartupEvent event) {
+        Gauge.builder("dicoop.solver.jobs.active", solveJobScheduler,
+                SolveJobScheduler::getNbRunningJobs)
+                .description("Solving jobs started and not finished").register(meterRegistry);
+        Gauge.builder("dicoop.solver.jobs.queued", solveJobScheduler,
+                SolveJobScheduler::getNbQueuedJobs)
+                .description("Solving jobs waiting for a solver").register(meterRegistry);
+        Gauge.builder("dicoop.store.solutions", solutionStore, SolutionStore::size)
+                .description("Solutions kept by the solution store").register(meterRegistry);
+    }
+
+    // Called before the job is submitted to the scheduler
+    public void submitted(CommitteeSolution solution, SolverOptions options) {
+        var telemetry = new SolveTelemetry();
+        telemetry.id = solution.id;
+        telemetry.nbPersons = solution.persons.size();
+        telemetry.nbCommittees = solution.committees.size();
+        telemetry.nbAssignments = solution.committeeAssignments.size();
+        telemetry.problemSize = problemSize(telemetry.nbPersons);
+        telemetry.settingsProfile = settingsProfile(solution.settings);
+        telemetry.moveThreadCount = solverManagers.getMoveThreadCount(options.moveThreadCount);
+        telemetry.partitionCount = solverManagers.getPartitionCount(options.partitionCount);
+        telemetry.submittedTime = clock.instant();
+        jobs.put(solution.id, telemetry);
+        solverMetricTags.put(solution.id, tags(telemetry));
+    }
+
+    // Called when the scheduler starts the job, before the solver registers its metrics
+    public void started(UUID id) {
+        var telemetry = jobs.get(id);
+        if (telemetry != null) {
+            synchronized (telemetry) {
+                telemetry.startTime = clock.instant();
+            }
+        }
+    }
+
+    public void bestSolution(CommitteeSolution solution) {
+        var telemetry = jobs.get(solution.id);
+        if (telemetry == null) {
+            return;
+        }
+        synchronized (telemetry) {
+            if (telemetry.startTime == null || telemetry.endTime != null) {
+                return;
+            }
+            long timeMillis = Duration.between(telemetry.startTime, clock.instant()).toMillis();
+            if (telemetry.bestScores.size() < MAX_BEST_SCORES) {
+                telemetry.bestScores.add(new SolveTelemetry.BestScore(timeMillis, solution.score));
+            }
+            if (telemetry.timeToFeasibleMillis == null && solution.score != null
+                    && solution.score.isFeasible()) {
+                telemetry.timeToFeasibleMillis = timeMillis;
+                Timer.builder(TIME_TO_FEASIBLE)
+                        .description("Time from the start of the solving to the first feasible "
+                                + "best solution")
+                        .tags(tags(telemetry)).register(meterRegistry)
+                        .record(Duration.ofMillis(timeMillis));
+            }
+            updateScoreCalculations(telemetry);
+        }
+    }
+
+    // Called when the job is solved, failed, cancelled or refused
+    public void finished(UUID id) {
+        var telemetry = jobs.get(id);
+        if (telemetry != null) {
+            synchronized (telemetry) {
+                updateScoreCalculations(telemetry);
+                telemetry.endTime = clock.instant();
+            }
+        }
+        solverMetricTags.remove(id);
+    }
+
+    public Optional<SolveTelemetry> get(UUID id) {
+        var telemetry = jobs.get(id);
+        if (telemetry == null) {
+            return Optional.empty();
+        }
+        synchronized (telemetry) {
+            updateScoreCalculations(telemetry);
+        }
+        return Optional.of(telemetry);
+    }
+
+    // The solver removes its metrics when it ends, the count is then the last one read
+    private void updateScoreCalculations(SolveTelemetry telemetry) {
+        if (telemetry.startTime == null || telemetry.endTime != null) {
+            return;
+        }
+        var meter = meterRegistry.find(SCORE_CALCULATION_COUNT)
+                .tag(SolverMetricTags.PROBLEM_ID_TAG, telemetry.id.toString()).meter();
+        if (meter == null) {
+            return;
+        }
+        for (var measurement : meter.measure()) {
+            telemetry.scoreCalculationCount = (long) measurement.getValue();
+        }
+        long timeMillis = Duration.between(telemetry.startTime, clock.instant()).toMillis();
+        if (telemetry.scoreCalculationCount != null && timeMillis > 0) {
+            telemetry.scoreCalculationSpeed = telemetry.scoreCalculationCount * 1000 / timeMillis;
+        }
+    }
+
+    private static Tags tags(SolveTelemetry telemetry) {
+        return Tags.of(PROBLEM_SIZE_TAG, telemetry.problemSize, SETTINGS_PROFILE_TAG,
+                telemetry.settingsProfile);
+    }
+
+    // By order of magnitude of the number of persons, to keep few distinct tags
+    static String problemSize(int nbPersons) {
+        int bound = 100;
+        while (bound <= nbPersons && bound < 10_000) {
+            bound *= 10;
+        }
+        return nbPersons < bound ? "<" + bound : ">=" + bound;
+    }
+
+    // The settings which change the difficulty of a problem
+    static String settingsProfile(Settings settings) {
+        return String.format("pro%d-%d,nonpro%d-%d,followup%d,rotations%d,availability%s",
+                settings.nbProParticipants.getMin(), settings.nbProParticipants.getMax(),
+                settings.nbNonProParticipants.getMin(), settings.nbNonProParticipants.getMax(),
+                settings.nbInspectorsFollowingUp, settings.nbRotationsToReinspect,
+                Boolean.FALSE.equals(settings.useAvailability) ? "off" : "on");
+    }
+}
@@ -10,7 +10,6 @@ import org.optaplanner.core.api.score.stream.ConstraintProvider;
 import fr.cirad.domain.Committee;
 import fr.cirad.domain.CommitteeAssignment;
 import fr.cirad.domain.Settings;
-import fr.cirad.domain.TimeSlot;
 
 public class CommitteeSchedulingConstraintProvider implements ConstraintProvider {
 
@@ -145,11 +144,12 @@ public class CommitteeSchedulingConstraintProvider implements ConstraintProvider
                                 .asConstraint("Max number of inspections");
         }
 
+        // Groups on the planning time slot itself and joins the settings fact only once per
+        // group, so that no object is created for each committee on each evaluation
         private Constraint badCommitteeNumberByTimeSlotRange(ConstraintFactory constraintFactory) {
-                return constraintFactory.forEach(Committee.class).join(Settings.class)
-                                .map((c, s) -> TimeSlot.copyAndSetSettings(c.timeSlot, s))
-                                .groupBy(t -> t, count())
-                                .filter((t, nb) -> !t.isNumberOfCommitteesInRange(nb))
+                return constraintFactory.forEach(Committee.class)
+                                .groupBy(c -> c.timeSlot, count()).join(Settings.class)
+                                .filter((t, nb, s) -> !s.isNumberOfCommitteesInRange(nb))
                                 .penalize(HardMediumSoftScore.ONE_HARD)
                                 .asConstraint("Number of committees for a given timeslot");
         }
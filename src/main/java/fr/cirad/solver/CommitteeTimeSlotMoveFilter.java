@@ -0,0 +1,42 @@
+package fr.cirad.solver;
+
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.heuristic.selector.common.decorator.SelectionFilter;
+import org.optaplanner.core.impl.heuristic.selector.move.generic.ChangeMove;
+import org.optaplanner.core.impl.heuristic.selector.move.generic.SwapMove;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.TimeSlot;
+
+/**
+ * Filters the change and swap moves of the committee time slots, so that a committee only moves,
+ * together with its evaluators, to a time slot where the evaluated person and enough of its
+ * evaluators are available. A committee which can not meet in its current time slot may move
+ * anywhere.
+ */
+public class CommitteeTimeSlotMoveFilter
+        implements SelectionFilter<CommitteeSolution, Move<CommitteeSolution>> {
+
+    @Override
+    public boolean accept(ScoreDirector<CommitteeSolution> scoreDirector,
+            Move<CommitteeSolution> move) {
+        if (move instanceof ChangeMove) {
+            var changeMove = (ChangeMove<?>) move;
+            return canMove((Committee) changeMove.getEntity(),
+                    (TimeSlot) changeMove.getToPlanningValue());
+        }
+        if (move instanceof SwapMove) {
+            var swapMove = (SwapMove<?>) move;
+            var left = (Committee) swapMove.getLeftEntity();
+            var right = (Committee) swapMove.getRightEntity();
+            return canMove(left, right.timeSlot) && canMove(right, left.timeSlot);
+        }
+        return true;
+    }
+
+    private static boolean canMove(Committee committee, TimeSlot timeSlot) {
+        return timeSlot != null && committee.isAvailable(timeSlot)
+                || !committee.isAvailable(committee.timeSlot);
+    }
+}
@@ -0,0 +1,47 @@
+package fr.cirad.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental score calculation time of each constraint alone, on the same sequence of moves, by
+ * decreasing time: the first constraints are those to optimize.
+ */
+public class ConstraintProfile {
+    public int nbMoves;
+    public long seed;
+
+    // With all the constraints, to compare with the sum of the constraints alone
+    public long nanosPerMove;
+    public String score;
+
+    public List<ConstraintCost> constraints = new ArrayList<>();
+    public long profilingTimeMillis;
+
+    public static class ConstraintCost {
+        // Name of the constraint, as in the score explanation
+        public String constraint;
+        // Score calculation of the initial solution, with all its tuples inserted
+        public long initialNanos;
+        public long nanosPerMove;
+        // Of the sum of the time per move of the constraints alone
+        public double share;
+        // Tuples matched by the constraint and their score impact after the last move
+        public int matchCount;
+        public String score;
+
+        public ConstraintCost() {
+            // Empty constructor needed by serialization
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d ns/move (%.1f%%), %d matches", constraint, nanosPerMove,
+                    share * 100, matchCount);
+        }
+    }
+
+    public ConstraintProfile() {
+        // Empty constructor needed by serialization
+    }
+}
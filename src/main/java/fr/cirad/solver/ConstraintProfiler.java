@@ -0,0 +1,164 @@
+package fr.cirad.solver;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
+import org.optaplanner.core.api.score.stream.ConstraintStreamImplType;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.score.director.InnerScoreDirectorFactory;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+
+/**
+ * Measures the incremental score calculation of each constraint of
+ * {@link CommitteeSchedulingConstraintProvider} alone, see {@link SingleConstraintProvider}, as
+ * OptaPlanner does not expose the time spent in each node of the constraint streams. Each
+ * constraint gets its own score director on a copy of the solution, and the same seeded sequence
+ * of random committee and time slot changes, like the local search does. Only the score
+ * calculations are timed, the variable listeners being the same for all the constraints.
+ */
+public class ConstraintProfiler {
+
+    // One move out of TIME_SLOT_MOVE_RATIO changes the time slot of a committee
+    private static final int TIME_SLOT_MOVE_RATIO = 4;
+
+    private final CommitteeSolution solution;
+    private final int nbMoves;
+    private final long seed;
+
+    public ConstraintProfiler(CommitteeSolution solution, int nbMoves, long seed) {
+        this.solution = solution;
+        this.nbMoves = nbMoves;
+        this.seed = seed;
+    }
+
+    public ConstraintProfile profile() {
+        long start = System.nanoTime();
+        var profile = new ConstraintProfile();
+        profile.nbMoves = nbMoves;
+        profile.seed = seed;
+        var all = measure(null);
+        profile.nanosPerMove = all.nanosPerMove;
+        profile.score = all.score;
+        for (var constraint : all.constraints) {
+            profile.constraints.add(measure(constraint).cost);
+        }
+        long totalNanosPerMove =
+                profile.constraints.stream().mapToLong(c -> c.nanosPerMove).sum();
+        for (var cost : profile.constraints) {
+            cost.share = totalNanosPerMove > 0 ? (double) cost.nanosPerMove / totalNanosPerMove
+                    : 0;
+        }
+        profile.constraints.sort(
+                Comparator.comparingLong((ConstraintProfile.ConstraintCost c) -> c.nanosPerMove)
+                        .reversed());
+        profile.profilingTimeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return profile;
+    }
+
+    private static class Measure {
+        long nanosPerMove;
+        String score;
+        // The constraints of the score director, in their order of definition
+        List<String> constraints = new ArrayList<>();
+        ConstraintProfile.ConstraintCost cost = new ConstraintProfile.ConstraintCost();
+    }
+
+    // null measures all the constraints
+    private Measure measure(String constraintName) {
+        var measure = new Measure();
+        try (var scoreDirector = buildScoreDirectorFactory(constraintName)
+                .buildScoreDirector(false, true)) {
+            scoreDirector.setWorkingSolution(scoreDirector.cloneSolution(solution));
+            var workingSolution = scoreDirector.getWorkingSolution();
+            // the local search never changes the pinned committees and assignments
+            var committees = workingSolution.timeSlots.isEmpty() ? List.<Committee>of()
+                    : workingSolution.committees.stream().filter(c -> !c.pinned)
+                            .collect(Collectors.toList());
+            var assignments = workingSolution.committeeAssignments.stream()
+                    .filter(a -> !a.pinned).collect(Collectors.toList());
+            // without anything to change, only the initial calculation is measured
+            int nbMovesDone = committees.isEmpty() && assignments.isEmpty() ? 0 : nbMoves;
+            var random = new Random(seed);
+            long start = System.nanoTime();
+            scoreDirector.calculateScore();
+            long initialNanos = System.nanoTime() - start;
+            long movesNanos = 0;
+            for (int i = 0; i < nbMovesDone; i++) {
+                doMove(scoreDirector, random, committees, assignments);
+                start = System.nanoTime();
+                scoreDirector.calculateScore();
+                movesNanos += System.nanoTime() - start;
+            }
+            var score = scoreDirector.calculateScore();
+            measure.nanosPerMove = nbMovesDone > 0 ? movesNanos / nbMovesDone : 0;
+            measure.score = score.toString();
+            var cost = measure.cost;
+            cost.constraint = constraintName;
+            cost.initialNanos = initialNanos;
+            cost.nanosPerMove = measure.nanosPerMove;
+            cost.score = HardMediumSoftScore.ZERO.toString();
+            for (ConstraintMatchTotal<HardMediumSoftScore> matchTotal : scoreDirector
+                    .getConstraintMatchTotalMap().values()) {
+                measure.constraints.add(matchTotal.getConstraintName());
+                cost.matchCount += matchTotal.getConstraintMatchCount();
+                if (constraintName != null) {
+                    cost.score = matchTotal.getScore().toString();
+                }
+            }
+        }
+        return measure;
+    }
+
+    // A move of the movable committees and assignments, at least one of them not being empty
+    private static void doMove(InnerScoreDirector<CommitteeSolution, HardMediumSoftScore> director,
+            Random random, List<Committee> committees, List<CommitteeAssignment> assignments) {
+        if (!committees.isEmpty()
+                && (assignments.isEmpty() || random.nextInt(TIME_SLOT_MOVE_RATIO) == 0)) {
+            var committee = committees.get(random.nextInt(committees.size()));
+            var timeSlots = director.getWorkingSolution().timeSlots;
+            director.beforeVariableChanged(committee, "timeSlot");
+            committee.timeSlot = timeSlots.get(random.nextInt(timeSlots.size()));
+            director.afterVariableChanged(committee, "timeSlot");
+        } else {
+            var assignment = assignments.get(random.nextInt(assignments.size()));
+            var committeeRange = assignment.getCommitteeRange();
+            // the last index unassigns, the committee being nullable
+            int index = random.nextInt(committeeRange.size() + 1);
+            director.beforeVariableChanged(assignment, "committee");
+            assignment.committee = index < committeeRange.size() ? committeeRange.get(index) : null;
+            director.afterVariableChanged(assignment, "committee");
+        }
+        director.triggerVariableListeners();
+    }
+
+    // The constraint is selected while building the factory, which defines the constraints
+    private static InnerScoreDirectorFactory<CommitteeSolution, HardMediumSoftScore>
+            buildScoreDirectorFactory(String constraintName) {
+        var solverConfig = new SolverConfig().withSolutionClass(CommitteeSolution.class)
+                .withEntityClasses(Committee.class, CommitteeAssignment.class)
+                .withScoreDirectorFactory(new ScoreDirectorFactoryConfig()
+                        .withConstraintProviderClass(SingleConstraintProvider.class)
+                        .withConstraintStreamImplType(ConstraintStreamImplType.BAVET));
+        synchronized (SingleConstraintProvider.class) {
+            SingleConstraintProvider.constraintName = constraintName;
+            try {
+                var solverFactory = (DefaultSolverFactory<CommitteeSolution>) SolverFactory
+                        .<CommitteeSolution>create(solverConfig);
+                return solverFactory.getScoreDirectorFactory();
+            } finally {
+                SingleConstraintProvider.constraintName = null;
+            }
+        }
+    }
+}
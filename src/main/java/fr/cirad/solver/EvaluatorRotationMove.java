@@ -0,0 +1,125 @@
+package fr.cirad.solver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.heuristic.move.AbstractMove;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+
+/**
+ * Gives each assignment the committee of the next one, the last one taking the committee of the
+ * first one. The assignments being of evaluators of the same person type, the composition of each
+ * committee is kept: two assignments swap their evaluators, three rotate them.
+ */
+public class EvaluatorRotationMove extends AbstractMove<CommitteeSolution> {
+
+    private final List<CommitteeAssignment> assignments;
+    private final List<Committee> toCommittees;
+
+    public EvaluatorRotationMove(List<CommitteeAssignment> assignments,
+            List<Committee> toCommittees) {
+        this.assignments = assignments;
+        this.toCommittees = toCommittees;
+    }
+
+    // The rotation of the current committees of the assignments
+    public static EvaluatorRotationMove rotate(List<CommitteeAssignment> assignments) {
+        var toCommittees = new ArrayList<Committee>(assignments.size());
+        for (int i = 0; i < assignments.size(); i++) {
+            toCommittees.add(assignments.get((i + 1) % assignments.size()).committee);
+        }
+        return new EvaluatorRotationMove(assignments, toCommittees);
+    }
+
+    // Doable when an assignment changes committee and each committee is in the range of its
+    // assignment, see CommitteeAssignment.getCommitteeRange
+    @Override
+    public boolean isMoveDoable(ScoreDirector<CommitteeSolution> scoreDirector) {
+        boolean changed = false;
+        for (int i = 0; i < assignments.size(); i++) {
+            var assignment = assignments.get(i);
+            var toCommittee = toCommittees.get(i);
+            if (assignment.committee == toCommittee) {
+                continue;
+            }
+            if (toCommittee != null
+                    && !assignment.assignedPerson.canEvaluate(toCommittee.evaluatedPerson)) {
+                return false;
+            }
+            changed = true;
+        }
+        return changed;
+    }
+
+    @Override
+    protected EvaluatorRotationMove createUndoMove(
+            ScoreDirector<CommitteeSolution> scoreDirector) {
+        var fromCommittees = new ArrayList<Committee>(assignments.size());
+        assignments.forEach(assignment -> fromCommittees.add(assignment.committee));
+        return new EvaluatorRotationMove(assignments, fromCommittees);
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(ScoreDirector<CommitteeSolution> scoreDirector) {
+        for (int i = 0; i < assignments.size(); i++) {
+            var assignment = assignments.get(i);
+            scoreDirector.beforeVariableChanged(assignment, "committee");
+            assignment.committee = toCommittees.get(i);
+            scoreDirector.afterVariableChanged(assignment, "committee");
+        }
+    }
+
+    @Override
+    public EvaluatorRotationMove rebase(ScoreDirector<CommitteeSolution> destinationScoreDirector) {
+        var toWorkingCommittees = new ArrayList<Committee>(toCommittees.size());
+        for (var committee : toCommittees) {
+            toWorkingCommittees.add(committee != null
+                    ? destinationScoreDirector.lookUpWorkingObject(committee)
+                    : null);
+        }
+        return new EvaluatorRotationMove(rebaseList(assignments, destinationScoreDirector),
+                toWorkingCommittees);
+    }
+
+    @Override
+    public Collection<CommitteeAssignment> getPlanningEntities() {
+        return assignments;
+    }
+
+    @Override
+    public Collection<Committee> getPlanningValues() {
+        return toCommittees;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof EvaluatorRotationMove)) {
+            return false;
+        }
+        var other = (EvaluatorRotationMove) o;
+        return assignments.equals(other.assignments) && toCommittees.equals(other.toCommittees);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(assignments, toCommittees);
+    }
+
+    @Override
+    public String toString() {
+        var description = new StringBuilder();
+        for (int i = 0; i < assignments.size(); i++) {
+            var assignment = assignments.get(i);
+            description.append(i == 0 ? "" : ", ").append(assignment.id).append(" {")
+                    .append(assignment.committee != null ? assignment.committee.id : null)
+                    .append(" -> ")
+                    .append(toCommittees.get(i) != null ? toCommittees.get(i).id : null)
+                    .append("}");
+        }
+        return description.toString();
+    }
+}
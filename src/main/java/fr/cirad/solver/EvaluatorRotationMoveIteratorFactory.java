@@ -0,0 +1,176 @@
+package fr.cirad.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.PersonType;
+
+/**
+ * Random {@link EvaluatorRotationMove}s of rotationSize assignments of evaluators of the same
+ * person type, each in a different committee or unassigned. Unlike a change move, which breaks
+ * the number of professionals or non professionals of two committees, they keep the composition
+ * of the committees, so the solver explores which evaluators are in which committee among the
+ * feasible compositions. The rotation size is a custom property, 2 for swaps and 3 for rotations.
+ * The follow-up constraint being the hardest to meet, a committee without a follow-up inspector
+ * takes, for half of its rotations, one of the persons who inspected the evaluated person last
+ * time.
+ */
+public class EvaluatorRotationMoveIteratorFactory
+        implements MoveIteratorFactory<CommitteeSolution, EvaluatorRotationMove> {
+
+    // Assignments drawn to find one in another committee, before giving up on a move
+    private static final int MAX_DRAWS_PER_ASSIGNMENT = 10;
+
+    private int rotationSize = 2;
+
+    // The movable assignments, and by person type those of the types with enough of them
+    private List<CommitteeAssignment> movableAssignments = List.of();
+    private Map<PersonType, List<CommitteeAssignment>> assignmentsByPersonType = Map.of();
+    // The movable assignments of the persons who inspected the evaluated person of each committee
+    // last time
+    private Map<Committee, List<CommitteeAssignment>> followUpAssignments = Map.of();
+
+    public void setRotationSize(int rotationSize) {
+        if (rotationSize < 2) {
+            throw new IllegalArgumentException(
+                    "The rotation size (" + rotationSize + ") must be at least 2.");
+        }
+        this.rotationSize = rotationSize;
+    }
+
+    @Override
+    public void phaseStarted(ScoreDirector<CommitteeSolution> scoreDirector) {
+        var solution = scoreDirector.getWorkingSolution();
+        var byPersonType = new HashMap<PersonType, List<CommitteeAssignment>>();
+        for (var assignment : solution.committeeAssignments) {
+            if (!assignment.pinned) {
+                byPersonType.computeIfAbsent(assignment.assignedPerson.personType,
+                        personType -> new ArrayList<>()).add(assignment);
+            }
+        }
+        byPersonType.values().removeIf(assignments -> assignments.size() < rotationSize);
+        assignmentsByPersonType = byPersonType;
+        movableAssignments = new ArrayList<>();
+        byPersonType.values().forEach(movableAssignments::addAll);
+
+        var committeesByEvaluatedName = new HashMap<String, Committee>();
+        for (var committee : solution.committees) {
+            committeesByEvaluatedName.put(
+                    CommitteeSolution.ordinalKey(committee.evaluatedPerson.name), committee);
+        }
+        followUpAssignments = new HashMap<>();
+        for (var assignment : movableAssignments) {
+            var history = assignment.assignedPerson.hasAlreadyInspected;
+            if (history == null || history.isEmpty()) {
+                continue;
+            }
+            for (var evaluatedName : history.get(0)) {
+                var committee =
+                        committeesByEvaluatedName.get(CommitteeSolution.ordinalKey(evaluatedName));
+                if (committee != null) {
+                    followUpAssignments.computeIfAbsent(committee, c -> new ArrayList<>())
+                            .add(assignment);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void phaseEnded(ScoreDirector<CommitteeSolution> scoreDirector) {
+        movableAssignments = List.of();
+        assignmentsByPersonType = Map.of();
+        followUpAssignments = Map.of();
+    }
+
+    // The number of rotations of distinct assignments, as if they were all in distinct committees
+    @Override
+    public long getSize(ScoreDirector<CommitteeSolution> scoreDirector) {
+        long size = 0;
+        for (var assignments : assignmentsByPersonType.values()) {
+            long nbRotations = 1;
+            for (int i = 0; i < rotationSize; i++) {
+                nbRotations *= assignments.size() - i;
+            }
+            size += nbRotations / rotationSize;
+        }
+        return size;
+    }
+
+    @Override
+    public Iterator<EvaluatorRotationMove> createOriginalMoveIterator(
+            ScoreDirector<CommitteeSolution> scoreDirector) {
+        throw new UnsupportedOperationException(
+                "The evaluator rotations only support a random selection order.");
+    }
+
+    @Override
+    public Iterator<EvaluatorRotationMove> createRandomMoveIterator(
+            ScoreDirector<CommitteeSolution> scoreDirector, Random workingRandom) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !movableAssignments.isEmpty();
+            }
+
+            @Override
+            public EvaluatorRotationMove next() {
+                return nextMove(workingRandom);
+            }
+        };
+    }
+
+    private EvaluatorRotationMove nextMove(Random random) {
+        var first = movableAssignments.get(random.nextInt(movableAssignments.size()));
+        var candidates = assignmentsByPersonType.get(first.assignedPerson.personType);
+        var assignments = new ArrayList<CommitteeAssignment>(rotationSize);
+        var committees = new ArrayList<Committee>(rotationSize);
+        assignments.add(first);
+        committees.add(first.committee);
+        var followUp = pickFollowUp(first, random);
+        if (followUp != null) {
+            assignments.add(followUp);
+            committees.add(followUp.committee);
+        }
+        for (int draw = 0; draw < MAX_DRAWS_PER_ASSIGNMENT * rotationSize
+                && assignments.size() < rotationSize; draw++) {
+            var candidate = candidates.get(random.nextInt(candidates.size()));
+            // the committees are compared by identity, as an unassigned evaluator may be part of
+            // the rotation
+            if (committees.stream().noneMatch(committee -> committee == candidate.committee)) {
+                assignments.add(candidate);
+                committees.add(candidate.committee);
+            }
+        }
+        if (assignments.size() < rotationSize) {
+            // not doable, the assignments keep their committees
+            return new EvaluatorRotationMove(assignments, committees);
+        }
+        return EvaluatorRotationMove.rotate(assignments);
+    }
+
+    // An assignment of a last time inspector, to rotate into the committee of the first one
+    private CommitteeAssignment pickFollowUp(CommitteeAssignment first, Random random) {
+        var committee = first.committee;
+        if (committee == null || committee.nbFollowUps > 0
+                || !committee.inspectionFollowUpNotRespected() || random.nextBoolean()) {
+            return null;
+        }
+        var candidates = followUpAssignments.get(committee);
+        if (candidates == null) {
+            return null;
+        }
+        var candidate = candidates.get(random.nextInt(candidates.size()));
+        return candidate.committee != committee
+                && candidate.assignedPerson.personType.equals(first.assignedPerson.personType)
+                        ? candidate
+                        : null;
+    }
+}
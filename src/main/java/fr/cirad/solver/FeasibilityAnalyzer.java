@@ -0,0 +1,264 @@
+package fr.cirad.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.Person;
+import fr.cirad.domain.PersonType;
+import fr.cirad.domain.Range;
+import fr.cirad.domain.Settings;
+
+/**
+ * Bounds of the hard constraints computed from the problem alone, in one pass over the committees
+ * and their possible evaluators, so that a problem which can never become feasible is reported
+ * before it occupies a solver. A possible evaluator of a committee is a person with assignments
+ * who can evaluate the evaluated person, see {@link Person#canEvaluate(Person)}. Each check only
+ * reports what no solution can satisfy: a problem passing all of them may still have no feasible
+ * solution.
+ */
+public class FeasibilityAnalyzer {
+
+    // Committee.notEnoughAvailableEvaluators needs two evaluators available for the meeting
+    private static final int MIN_AVAILABLE_EVALUATORS = 2;
+
+    private final CommitteeSolution solution;
+    private final Settings settings;
+    private final FeasibilityReport report = new FeasibilityReport();
+
+    public FeasibilityAnalyzer(CommitteeSolution solution) {
+        this.solution = solution;
+        this.settings = solution.settings;
+    }
+
+    public FeasibilityReport analyze() {
+        long start = System.nanoTime();
+        checkCapacity(PersonType.PROFESSIONAL, settings.nbProParticipants,
+                "Min number of professional");
+        checkCapacity(PersonType.NON_PROFESSIONAL, settings.nbNonProParticipants,
+                "Min number of non professional");
+        checkNumberOfInspections();
+        checkMeetingSize();
+        checkCommittees();
+        report.analysisTimeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return report;
+    }
+
+    private void checkCapacity(PersonType personType, Range nbParticipants, String constraint) {
+        long nbPersons =
+                solution.persons.stream().filter(p -> personType.equals(p.personType)).count();
+        long capacity = nbPersons * settings.getNumberOfAssignmentsRange(personType).getMax();
+        long demand = (long) solution.committees.size() * nbParticipants.getMin();
+        if (capacity < demand) {
+            var label = label(personType);
+            report.add(constraint, String.format(
+                    "The %d committees need %d %s assignments, but the %d %ss only have %d. "
+                            + "Raise the number of assignments of a %s, add %ss or lower the "
+                            + "minimum number of %ss of a committee.",
+                    solution.committees.size(), demand, label, nbPersons, label, capacity, label,
+                    label, label), List.of());
+        }
+    }
+
+    // The maximum number of inspections is the number of inspections a person must do
+    private void checkNumberOfInspections() {
+        var overAssignments = new ArrayList<String>();
+        var nbInspectionsByType = new HashMap<PersonType, Long>();
+        for (var person : solution.persons) {
+            if (person.maxNumberOfInspections == null || person.personType == null) {
+                continue;
+            }
+            if (person.maxNumberOfInspections > settings
+                    .getNumberOfAssignmentsRange(person.personType).getMax()) {
+                overAssignments.add(person.name);
+            }
+            nbInspectionsByType.merge(person.personType, person.maxNumberOfInspections,
+                    Long::sum);
+        }
+        if (!overAssignments.isEmpty()) {
+            report.add("Max number of inspections",
+                    "These persons must do more inspections than their number of assignments. "
+                            + "Lower their number of inspections or raise the number of "
+                            + "assignments of their type.",
+                    overAssignments);
+        }
+        checkInspectionSeats(PersonType.PROFESSIONAL, settings.nbProParticipants,
+                nbInspectionsByType);
+        checkInspectionSeats(PersonType.NON_PROFESSIONAL, settings.nbNonProParticipants,
+                nbInspectionsByType);
+    }
+
+    private void checkInspectionSeats(PersonType personType, Range nbParticipants,
+            Map<PersonType, Long> nbInspectionsByType) {
+        long nbInspections = nbInspectionsByType.getOrDefault(personType, 0L);
+        long nbSeats = (long) solution.committees.size() * nbParticipants.getMax();
+        if (nbInspections > nbSeats) {
+            var label = label(personType);
+            report.add("Max number of inspections", String.format(
+                    "The %ss must do %d inspections, but the committees only have %d %s seats. "
+                            + "Lower the numbers of inspections or raise the maximum number of "
+                            + "%ss of a committee.",
+                    label, nbInspections, nbSeats, label, label), List.of());
+        }
+    }
+
+    // The committees of a time slot must be within the meeting size, the empty time slots are not
+    private void checkMeetingSize() {
+        var meetingSize = settings.committeeMeetingSize;
+        int nbCommittees = solution.committees.size();
+        int nbTimeSlots = solution.timeSlots.size();
+        if (meetingSize == null || nbCommittees == 0 || nbTimeSlots == 0) {
+            return;
+        }
+        for (long nbUsed = 1; nbUsed <= nbTimeSlots; nbUsed++) {
+            if (nbUsed * meetingSize.getMin() <= nbCommittees
+                    && nbCommittees <= nbUsed * meetingSize.getMax()) {
+                return;
+            }
+        }
+        report.add("Number of committees for a given timeslot", String.format(
+                "The %d committees can not be spread over the %d time slots with %d to %d "
+                        + "committees each. Change the committee meeting size or the time slots "
+                        + "of the availabilities.",
+                nbCommittees, nbTimeSlots, meetingSize.getMin(), meetingSize.getMax()), List.of());
+    }
+
+    private void checkCommittees() {
+        boolean useAvailability = !Boolean.FALSE.equals(settings.useAvailability);
+        if (useAvailability && solution.timeSlots.isEmpty() && !solution.committees.isEmpty()) {
+            report.add("Evaluated must be available for the meeting",
+                    "Nobody has an availability. Give the availabilities or do not use them.",
+                    List.of());
+            useAvailability = false;
+        }
+        var notEnoughProfessionals = new ArrayList<String>();
+        var notEnoughNonProfessionals = new ArrayList<String>();
+        var missingSkills = new LinkedHashMap<String, List<String>>();
+        var noFollowUp = new ArrayList<String>();
+        var notAvailable = new ArrayList<String>();
+        var noMeeting = new ArrayList<String>();
+        // Evaluators a committee can not do without, to find the pairs who must evaluate each
+        // other
+        var forcedEvaluators = new HashMap<Person, Set<Person>>();
+
+        for (var committee : solution.committees) {
+            var evaluated = committee.evaluatedPerson;
+            var candidates = new ArrayList<Person>();
+            for (var person : solution.persons) {
+                if (canEvaluate(person, evaluated)) {
+                    candidates.add(person);
+                }
+            }
+            checkComposition(committee, candidates, PersonType.PROFESSIONAL,
+                    settings.nbProParticipants, notEnoughProfessionals, forcedEvaluators);
+            checkComposition(committee, candidates, PersonType.NON_PROFESSIONAL,
+                    settings.nbNonProParticipants, notEnoughNonProfessionals, forcedEvaluators);
+            for (var skill : evaluated.requiredSkills) {
+                if (candidates.stream().noneMatch(c -> c.hasSkill(skill))) {
+                    missingSkills.computeIfAbsent(skill.name, s -> new ArrayList<>())
+                            .add(evaluated.name);
+                }
+            }
+            long nbFollowingUp =
+                    candidates.stream().filter(c -> c.hasAlreadyInspectedLastTime(evaluated))
+                            .count();
+            if (nbFollowingUp < settings.nbInspectorsFollowingUp) {
+                noFollowUp.add(evaluated.name);
+            }
+            if (useAvailability) {
+                if (solution.timeSlots.stream().noneMatch(evaluated::isAvailable)) {
+                    notAvailable.add(evaluated.name);
+                } else if (solution.timeSlots.stream()
+                        .noneMatch(t -> evaluated.isAvailable(t) && candidates.stream()
+                                .filter(c -> c.isAvailable(t))
+                                .limit(MIN_AVAILABLE_EVALUATORS)
+                                .count() == MIN_AVAILABLE_EVALUATORS)) {
+                    noMeeting.add(evaluated.name);
+                }
+            }
+        }
+
+        addIfAny("Min number of professional", notEnoughProfessionals,
+                "Fewer professionals than the minimum of a committee can evaluate these persons, "
+                        + "because of vetoes, rotations or travelling distances. Add "
+                        + "professionals or lift some of these restrictions.");
+        addIfAny("Min number of non professional", notEnoughNonProfessionals,
+                "Fewer non professionals than the minimum of a committee can evaluate these "
+                        + "persons, because of vetoes, rotations or travelling distances. Add "
+                        + "non professionals or lift some of these restrictions.");
+        missingSkills.forEach((skill, persons) -> report.add("Required skills",
+                "None of the possible evaluators of these persons has the required skill "
+                        + skill + ". Give the skill to other persons or remove it from the "
+                        + "required skills.",
+                persons));
+        addIfAny("Inspector follow up not respected", noFollowUp, String.format(
+                "Fewer than %d of the possible evaluators of these persons inspected them last "
+                        + "time. Lower the number of inspectors following up or complete the "
+                        + "inspection history.",
+                settings.nbInspectorsFollowingUp));
+        addIfAny("Evaluated must be available for the meeting", notAvailable,
+                "These persons are not available in any time slot. Give their availability.");
+        addIfAny("Not enough available evaluators for the meeting", noMeeting,
+                "In none of the time slots of these persons are " + MIN_AVAILABLE_EVALUATORS
+                        + " of their possible evaluators available. Give more availabilities.");
+        checkReciprocity(forcedEvaluators);
+    }
+
+    private void checkComposition(Committee committee, List<Person> candidates,
+            PersonType personType, Range nbParticipants, List<String> notEnough,
+            Map<Person, Set<Person>> forcedEvaluators) {
+        var ofType = new ArrayList<Person>();
+        for (var candidate : candidates) {
+            if (personType.equals(candidate.personType)) {
+                ofType.add(candidate);
+            }
+        }
+        int min = nbParticipants.getMin();
+        if (ofType.size() < min) {
+            notEnough.add(committee.evaluatedPerson.name);
+        } else if (ofType.size() == min && min > 0) {
+            forcedEvaluators.computeIfAbsent(committee.evaluatedPerson, p -> new HashSet<>())
+                    .addAll(ofType);
+        }
+    }
+
+    private void checkReciprocity(Map<Person, Set<Person>> forcedEvaluators) {
+        var persons = new ArrayList<String>();
+        forcedEvaluators.forEach((evaluated, evaluators) -> {
+            for (var evaluator : evaluators) {
+                var reverse = forcedEvaluators.get(evaluator);
+                if (reverse != null && reverse.contains(evaluated)
+                        && evaluated.ordinal < evaluator.ordinal) {
+                    persons.add(evaluated.name);
+                    persons.add(evaluator.name);
+                }
+            }
+        });
+        addIfAny("Non-reciprocity", persons,
+                "These pairs of persons are each the only possible evaluators of the other, but "
+                        + "two persons can not evaluate each other. Add evaluators or lift some "
+                        + "vetoes.");
+    }
+
+    private boolean canEvaluate(Person person, Person evaluated) {
+        return person.personType != null
+                && settings.getNumberOfAssignmentsRange(person.personType).getMax() > 0
+                && person.canEvaluate(evaluated);
+    }
+
+    private void addIfAny(String constraint, List<String> persons, String message) {
+        if (!persons.isEmpty()) {
+            report.add(constraint, message, persons);
+        }
+    }
+
+    private static String label(PersonType personType) {
+        return PersonType.PROFESSIONAL.equals(personType) ? "professional" : "non professional";
+    }
+}
@@ -0,0 +1,46 @@
+package fr.cirad.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What the feasibility analysis found: each diagnostic is a hard constraint that no solution can
+ * satisfy, with the persons to change so that it can be.
+ */
+public class FeasibilityReport {
+    public boolean feasible = true;
+    public List<Diagnostic> diagnostics = new ArrayList<>();
+    public long analysisTimeMillis;
+
+    public static class Diagnostic {
+        // Name of the hard constraint, as in the score explanation
+        public String constraint;
+        public String message;
+        // The persons whose committees or assignments can not satisfy the constraint
+        public List<String> persons;
+
+        public Diagnostic() {
+            // Empty constructor needed by serialization
+        }
+
+        public Diagnostic(String constraint, String message, List<String> persons) {
+            this.constraint = constraint;
+            this.message = message;
+            this.persons = persons;
+        }
+
+        @Override
+        public String toString() {
+            return constraint + ": " + message;
+        }
+    }
+
+    public FeasibilityReport() {
+        // Empty constructor needed by serialization
+    }
+
+    void add(String constraint, String message, List<String> persons) {
+        feasible = false;
+        diagnostics.add(new Diagnostic(constraint, message, persons));
+    }
+}
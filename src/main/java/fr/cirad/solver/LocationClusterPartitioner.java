@@ -0,0 +1,246 @@
+package fr.cirad.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.partitionedsearch.partitioner.SolutionPartitioner;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.DistanceMatrix;
+import fr.cirad.domain.Person;
+import fr.cirad.domain.Range;
+import fr.cirad.domain.Settings;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Splits a solution by clusters of locations of the distance matrix, as committees are mostly
+ * made of nearby evaluators. The locations are clustered with k-medoids, weighted by the number
+ * of committees. A committee is in the part of the evaluated person location and an assignment
+ * in the part of the assigned person location, so an assignment to a committee of another part
+ * is left unassigned in its part, unless it is pinned: it then goes to the part of its committee.
+ * The committees per time slot range is scaled to the part, and the committees of the
+ * assignments are restricted to those of the part. Each part has its own copies of its persons,
+ * which hold these committee ranges.
+ * Constraints across parts are left to the phases after the partitioned search.
+ */
+@RegisterForReflection
+public class LocationClusterPartitioner implements SolutionPartitioner<CommitteeSolution> {
+
+    private static final int MAX_ITERATIONS = 10;
+
+    private int partitionCount = 4;
+
+    // Set from the solutionPartitionerCustomProperties of the phase config
+    public void setPartitionCount(int partitionCount) {
+        this.partitionCount = partitionCount;
+    }
+
+    @Override
+    public List<CommitteeSolution> splitWorkingSolution(
+            ScoreDirector<CommitteeSolution> scoreDirector, Integer runnablePartThreadLimit) {
+        return split(scoreDirector.getWorkingSolution());
+    }
+
+    List<CommitteeSolution> split(CommitteeSolution solution) {
+        var clusters = clusterLocations(solution);
+        int nbParts = Arrays.stream(clusters).max().orElse(0) + 1;
+
+        var parts = new ArrayList<CommitteeSolution>(nbParts);
+        var partPersons = new ArrayList<Map<Person, Person>>(nbParts);
+        for (int i = 0; i < nbParts; i++) {
+            var part = new CommitteeSolution();
+            part.id = solution.id;
+            part.settings = new Settings(solution.settings);
+            part.persons = new ArrayList<>();
+            part.timeSlots = solution.timeSlots;
+            part.registry = solution.registry;
+            part.committees = new ArrayList<>();
+            part.committeeAssignments = new ArrayList<>();
+            parts.add(part);
+            partPersons.add(new IdentityHashMap<>());
+        }
+        for (var person : solution.persons) {
+            int partIndex = partOf(person, clusters);
+            parts.get(partIndex).persons.add(partPerson(person, partPersons.get(partIndex)));
+        }
+
+        Map<Committee, Committee> partCommittees = new IdentityHashMap<>();
+        for (var committee : solution.committees) {
+            int partIndex = partOf(committee.evaluatedPerson, clusters);
+            var partCommittee = new Committee(
+                    partPerson(committee.evaluatedPerson, partPersons.get(partIndex)),
+                    solution.settings);
+            partCommittee.timeSlot = committee.timeSlot;
+            partCommittee.pinned = committee.pinned;
+            parts.get(partIndex).committees.add(partCommittee);
+            partCommittees.put(committee, partCommittee);
+        }
+        for (var assignment : solution.committeeAssignments) {
+            // a pinned assignment can not be left unassigned, the part could not restore it
+            int partIndex = assignment.pinned && assignment.committee != null
+                    ? partOf(assignment.committee.evaluatedPerson, clusters)
+                    : partOf(assignment.assignedPerson, clusters);
+            var partAssignment = new CommitteeAssignment(assignment.id,
+                    partPerson(assignment.assignedPerson, partPersons.get(partIndex)),
+                    assignment.distanceMatrix);
+            partAssignment.pinned = assignment.pinned;
+            if (assignment.committee != null
+                    && partOf(assignment.committee.evaluatedPerson, clusters) == partIndex) {
+                partAssignment.committee = partCommittees.get(assignment.committee);
+                partAssignment.committee.assignments.add(partAssignment);
+            }
+            parts.get(partIndex).committeeAssignments.add(partAssignment);
+        }
+
+        for (var part : parts) {
+            part.committees.forEach(Committee::resetComposition);
+            part.compileCommitteeRanges();
+            var range = solution.settings.committeeMeetingSize;
+            if (range != null) {
+                double share = (double) part.committees.size() / solution.committees.size();
+                part.settings.committeeMeetingSize =
+                        new Range((int) Math.floor(range.getMin() * share),
+                                (int) Math.ceil(range.getMax() * share));
+            }
+        }
+        return parts;
+    }
+
+    // Persons without a known location are put in the first part
+    private static int partOf(Person person, int[] clusters) {
+        int index = person.location != null ? person.location.index : -1;
+        return index >= 0 && index < clusters.length ? clusters[index] : 0;
+    }
+
+    // The copy of the person in a part, the persons of a pinned assignment to a committee of
+    // another part have a copy in both
+    private static Person partPerson(Person person, Map<Person, Person> partPersons) {
+        return partPersons.computeIfAbsent(person, Person::new);
+    }
+
+    /**
+     * @return The cluster of each location of the distance matrix, each cluster having at least
+     *         one committee.
+     */
+    int[] clusterLocations(CommitteeSolution solution) {
+        DistanceMatrix matrix = solution.settings.distanceMatrix;
+        int nbLocations = matrix != null && matrix.locations != null ? matrix.locations.size() : 0;
+        var weights = new int[nbLocations];
+        for (var committee : solution.committees) {
+            var location = committee.evaluatedPerson.location;
+            if (location != null && location.index >= 0 && location.index < nbLocations) {
+                weights[location.index]++;
+            }
+        }
+        var candidates = new ArrayList<Integer>();
+        for (int i = 0; i < nbLocations; i++) {
+            if (weights[i] > 0) {
+                candidates.add(i);
+            }
+        }
+        int nbClusters = Math.min(partitionCount, candidates.size());
+        if (nbClusters <= 1) {
+            return new int[nbLocations];
+        }
+
+        // farthest first seeding, starting from the location with the most committees
+        var medoids = new int[nbClusters];
+        medoids[0] = candidates.stream().max((a, b) -> Integer.compare(weights[a], weights[b]))
+                .get();
+        for (int k = 1; k < nbClusters; k++) {
+            int farthest = -1;
+            int farthestDistance = -1;
+            for (int location : candidates) {
+                int distance = distanceToNearest(matrix, location, medoids, k);
+                if (distance > farthestDistance) {
+                    farthest = location;
+                    farthestDistance = distance;
+                }
+            }
+            medoids[k] = farthest;
+        }
+
+        var clusters = new int[nbLocations];
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            assignToNearest(matrix, medoids, clusters);
+            boolean changed = false;
+            for (int k = 0; k < nbClusters; k++) {
+                int medoid = medoids[k];
+                long bestCost = Long.MAX_VALUE;
+                for (int candidate : candidates) {
+                    if (clusters[candidate] != k) {
+                        continue;
+                    }
+                    long cost = 0;
+                    for (int location : candidates) {
+                        if (clusters[location] == k) {
+                            cost += (long) weights[location]
+                                    * matrix.getDistance(candidate, location);
+                        }
+                    }
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        medoid = candidate;
+                    }
+                }
+                changed |= medoid != medoids[k];
+                medoids[k] = medoid;
+            }
+            if (!changed) {
+                break;
+            }
+        }
+        assignToNearest(matrix, medoids, clusters);
+        return dropEmptyClusters(matrix, medoids, clusters, weights);
+    }
+
+    private static int distanceToNearest(DistanceMatrix matrix, int location, int[] medoids,
+            int nbMedoids) {
+        int nearest = Integer.MAX_VALUE;
+        for (int k = 0; k < nbMedoids; k++) {
+            nearest = Math.min(nearest, matrix.getDistance(medoids[k], location));
+        }
+        return nearest;
+    }
+
+    private static void assignToNearest(DistanceMatrix matrix, int[] medoids, int[] clusters) {
+        for (int location = 0; location < clusters.length; location++) {
+            int nearest = 0;
+            for (int k = 1; k < medoids.length; k++) {
+                if (matrix.getDistance(medoids[k], location) < matrix
+                        .getDistance(medoids[nearest], location)) {
+                    nearest = k;
+                }
+            }
+            clusters[location] = nearest;
+        }
+    }
+
+    // Medoids at the same place can leave a cluster without committees, which would be a part
+    // without values for the assignments. Its locations go to the nearest remaining medoid.
+    private static int[] dropEmptyClusters(DistanceMatrix matrix, int[] medoids, int[] clusters,
+            int[] weights) {
+        while (true) {
+            var clusterWeights = new int[medoids.length];
+            for (int location = 0; location < clusters.length; location++) {
+                clusterWeights[clusters[location]] += weights[location];
+            }
+            var kept = new ArrayList<Integer>();
+            for (int k = 0; k < medoids.length; k++) {
+                if (clusterWeights[k] > 0) {
+                    kept.add(k);
+                }
+            }
+            if (kept.size() == medoids.length) {
+                return clusters;
+            }
+            var remaining = medoids;
+            medoids = kept.stream().mapToInt(k -> remaining[k]).toArray();
+            assignToNearest(matrix, medoids, clusters);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package fr.cirad.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.optaplanner.core.api.solver.change.ProblemChange;
+import org.optaplanner.core.api.solver.change.ProblemChangeDirector;
+import com.google.common.base.Strings;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.Person;
+import fr.cirad.domain.TimeSlot;
+
+/**
+ * Changes of the persons of a solution being solved. The solver applies them to its working
+ * solution and goes on from its best solution. The persons are given by their names, which are
+ * compared ignoring case like everywhere in the domain.
+ */
+public final class PersonProblemChanges {
+
+    private PersonProblemChanges() {
+        // static factories only
+    }
+
+    public static ProblemChange<CommitteeSolution> addPerson(Person person) {
+        return (solution, director) -> {
+            solution.initPerson(person);
+            person.availability = internTimeSlots(solution, director, person.availability);
+            director.addProblemFact(person, solution.persons::add);
+            if (Boolean.TRUE.equals(person.needsEvaluation)) {
+                addCommittee(solution, director, person);
+            }
+            long nextId = solution.committeeAssignments.stream().mapToLong(a -> a.id).max()
+                    .orElse(-1L) + 1;
+            var range = solution.settings.getNumberOfAssignmentsRange(person.personType);
+            for (int i = 0; i < range.getMax(); i++) {
+                director.addEntity(new CommitteeAssignment(nextId++, person,
+                        solution.settings.distanceMatrix), solution.committeeAssignments::add);
+            }
+            compilePersons(solution, director);
+        };
+    }
+
+    // The vetoes of the other persons on the removed person are kept, as they are by name
+    public static ProblemChange<CommitteeSolution> removePerson(String personName) {
+        return (solution, director) -> {
+            var person = getPerson(solution, personName);
+            var committee = getCommittee(solution, person);
+            if (committee != null) {
+                removeCommittee(solution, director, committee);
+            }
+            var assignments = solution.committeeAssignments.stream()
+                    .filter(a -> a.assignedPerson == person).collect(Collectors.toList());
+            for (var assignment : assignments) {
+                unassign(director, assignment);
+                director.removeEntity(assignment, solution.committeeAssignments::remove);
+            }
+            director.removeProblemFact(person, solution.persons::remove);
+            compilePersons(solution, director);
+        };
+    }
+
+    public static ProblemChange<CommitteeSolution> setNeedsEvaluation(String personName,
+            boolean needsEvaluation) {
+        return (solution, director) -> {
+            var person = getPerson(solution, personName);
+            director.changeProblemProperty(person, p -> p.needsEvaluation = needsEvaluation);
+            var committee = getCommittee(solution, person);
+            if (needsEvaluation && committee == null) {
+                addCommittee(solution, director, person);
+            } else if (!needsEvaluation && committee != null) {
+                removeCommittee(solution, director, committee);
+            }
+            compileCommitteeRanges(solution, director);
+        };
+    }
+
+    // Replaces the vetoes of the person, a veto working both ways
+    public static ProblemChange<CommitteeSolution> setVetoes(String personName,
+            List<String> vetoedPersonNames) {
+        return (solution, director) -> {
+            var person = getPerson(solution, personName);
+            person.vetoes = vetoedPersonNames.stream()
+                    .map(name -> new Person(name, null)).collect(Collectors.toList());
+            compilePersons(solution, director);
+        };
+    }
+
+    public static ProblemChange<CommitteeSolution> setAvailability(String personName,
+            List<String> timeSlotNames) {
+        return (solution, director) -> {
+            var person = getPerson(solution, personName);
+            person.availability = internTimeSlots(solution, director, timeSlotNames.stream()
+                    .map(TimeSlot::new).collect(Collectors.toList()));
+            compilePersons(solution, director);
+        };
+    }
+
+    public static Person getPerson(CommitteeSolution solution, String personName) {
+        return solution.persons.stream().filter(p -> p.name.equalsIgnoreCase(personName))
+                .findFirst().orElseThrow(() -> new IllegalArgumentException(
+                        "There is no person named " + personName + "."));
+    }
+
+    private static Committee getCommittee(CommitteeSolution solution, Person evaluatedPerson) {
+        return solution.committees.stream().filter(c -> c.evaluatedPerson == evaluatedPerson)
+                .findFirst().orElse(null);
+    }
+
+    private static void addCommittee(CommitteeSolution solution, ProblemChangeDirector director,
+            Person evaluatedPerson) {
+        director.addEntity(new Committee(evaluatedPerson, solution.settings),
+                solution.committees::add);
+    }
+
+    private static void removeCommittee(CommitteeSolution solution,
+            ProblemChangeDirector director, Committee committee) {
+        for (var assignment : new ArrayList<>(committee.assignments)) {
+            unassign(director, assignment);
+        }
+        director.removeEntity(committee, solution.committees::remove);
+    }
+
+    private static void unassign(ProblemChangeDirector director, CommitteeAssignment assignment) {
+        if (assignment.committee != null) {
+            director.changeVariable(assignment, "committee", a -> a.committee = null);
+        }
+    }
+
+    // The time slots of the solution with the same names, the new ones being added to it
+    private static List<TimeSlot> internTimeSlots(CommitteeSolution solution,
+            ProblemChangeDirector director, List<TimeSlot> timeSlots) {
+        var interned = new ArrayList<TimeSlot>(timeSlots.size());
+        for (var timeSlot : timeSlots) {
+            var canonical = solution.registry.timeSlot(timeSlot);
+            // like when the solution is created, a time slot without name is not one of the
+            // committees
+            if (!Strings.isNullOrEmpty(canonical.name)
+                    && !solution.timeSlots.contains(canonical)) {
+                director.addProblemFact(canonical, solution.timeSlots::add);
+            }
+            interned.add(canonical);
+        }
+        return interned;
+    }
+
+    /**
+     * Compiles the persons again, which changes all of them, so the constraints are updated for
+     * each person, committee and assignment. The committee counters are computed again as they
+     * depend on the persons, and so are the committees of the assignments.
+     */
+    private static void compilePersons(CommitteeSolution solution,
+            ProblemChangeDirector director) {
+        solution.compilePersons();
+        for (var person : solution.persons) {
+            director.changeProblemProperty(person, p -> {
+            });
+        }
+        for (var committee : solution.committees) {
+            director.changeProblemProperty(committee, Committee::resetComposition);
+        }
+        compileCommitteeRanges(solution, director);
+    }
+
+    // The committees each assignment can take change with the persons and the committees
+    private static void compileCommitteeRanges(CommitteeSolution solution,
+            ProblemChangeDirector director) {
+        solution.compileCommitteeRanges();
+        for (var assignment : solution.committeeAssignments) {
+            director.changeProblemProperty(assignment, a -> {
+            });
+        }
+    }
+}
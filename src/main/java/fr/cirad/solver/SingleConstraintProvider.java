@@ -0,0 +1,34 @@
+package fr.cirad.solver;
+
+import java.util.Arrays;
+import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.score.stream.ConstraintFactory;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+
+/**
+ * Restricts {@link CommitteeSchedulingConstraintProvider} to a single constraint, so that each
+ * constraint can be benchmarked or profiled in isolation. OptaPlanner instantiates the provider
+ * itself, hence the constraint is selected through a static field before building the score
+ * director factory, see {@link ConstraintProfiler}.
+ */
+public class SingleConstraintProvider implements ConstraintProvider {
+
+    // null keeps all the constraints
+    static volatile String constraintName;
+
+    @Override
+    public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+        var constraints =
+                new CommitteeSchedulingConstraintProvider().defineConstraints(constraintFactory);
+        if (constraintName == null) {
+            return constraints;
+        }
+        var selected = Arrays.stream(constraints)
+                .filter(c -> c.getConstraintName().equals(constraintName))
+                .toArray(Constraint[]::new);
+        if (selected.length == 0) {
+            throw new IllegalArgumentException("Unknown constraint (" + constraintName + ").");
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,283 @@
+package fr.cirad.solver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.phase.custom.CustomPhaseCommand;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.Person;
+import fr.cirad.domain.PersonType;
+import fr.cirad.domain.Settings;
+import fr.cirad.domain.TimeSlot;
+
+/**
+ * Greedy construction of a first solution close to feasible, instead of assigning the entities in
+ * arbitrary order. The committees get the least busy time slot where their evaluated person is
+ * available, then they are filled in order of scarcity of their required skills: a committee
+ * needing a skill few persons have is filled first, while they are still free. Each committee
+ * first gets its minimum numbers of professionals and non professionals, each evaluator being the
+ * best of the candidates of the needed type: covering a missing required skill or the follow-up,
+ * available, with the most free assignments left and the closest. Only the unassigned and unpinned
+ * entities are changed, so it also completes a warm start or a changed problem.
+ */
+public class SkillCoveringConstructionHeuristic implements CustomPhaseCommand<CommitteeSolution> {
+
+    // Candidates compared for each evaluator, the next evaluator starting after the last one
+    // compared, so that the filling is linear in the number of committees
+    private static final int MAX_CANDIDATES = 200;
+
+    // Weights of what a candidate brings to a committee
+    private static final int MISSING_SKILL_WEIGHT = 100;
+    private static final int FOLLOW_UP_WEIGHT = 50;
+    private static final int INSPECTIONS_WEIGHT = 30;
+    private static final int AVAILABILITY_WEIGHT = 20;
+    private static final int FREE_ASSIGNMENT_WEIGHT = 5;
+
+    private CommitteeSolution solution;
+    private Settings settings;
+    private Map<Person, Committee> committeesByEvaluatedPerson;
+    private Map<Person, ArrayDeque<CommitteeAssignment>> freeAssignments;
+    private Map<Person, Integer> nbInspections;
+    private Map<Person, Integer> travelledDistances;
+    private Map<PersonType, List<Person>> candidatesByType;
+    private Map<PersonType, Integer> candidateCursors;
+    // The persons who inspected the evaluated person of each committee last time
+    private Map<Committee, List<Person>> followUpCandidates;
+
+    @Override
+    public void changeWorkingSolution(ScoreDirector<CommitteeSolution> scoreDirector) {
+        solution = scoreDirector.getWorkingSolution();
+        settings = solution.settings;
+        assignTimeSlots(scoreDirector);
+        indexPersons();
+        for (var committee : orderByScarcity(solution.committees)) {
+            fill(scoreDirector, committee);
+        }
+    }
+
+    private void assignTimeSlots(ScoreDirector<CommitteeSolution> scoreDirector) {
+        if (solution.timeSlots.isEmpty()) {
+            return;
+        }
+        var nbCommittees = new HashMap<TimeSlot, Integer>();
+        solution.timeSlots.forEach(timeSlot -> nbCommittees.put(timeSlot, 0));
+        solution.committees.stream().filter(c -> c.timeSlot != null)
+                .forEach(c -> nbCommittees.merge(c.timeSlot, 1, Integer::sum));
+        for (var committee : solution.committees) {
+            if (committee.timeSlot != null || committee.pinned) {
+                continue;
+            }
+            var timeSlot = solution.timeSlots.stream()
+                    .min(Comparator.comparing((TimeSlot t) -> committee.evaluatedNotAvailable(t))
+                            .thenComparing(nbCommittees::get))
+                    .get();
+            scoreDirector.beforeVariableChanged(committee, "timeSlot");
+            committee.timeSlot = timeSlot;
+            scoreDirector.afterVariableChanged(committee, "timeSlot");
+            nbCommittees.merge(timeSlot, 1, Integer::sum);
+        }
+        scoreDirector.triggerVariableListeners();
+    }
+
+    private void indexPersons() {
+        committeesByEvaluatedPerson = new HashMap<>();
+        solution.committees.forEach(c -> committeesByEvaluatedPerson.put(c.evaluatedPerson, c));
+        freeAssignments = new HashMap<>();
+        nbInspections = new HashMap<>();
+        travelledDistances = new HashMap<>();
+        for (var assignment : solution.committeeAssignments) {
+            var person = assignment.assignedPerson;
+            if (assignment.committee != null) {
+                nbInspections.merge(person, 1, Integer::sum);
+                travelledDistances.merge(person, assignment.getDistance(), Integer::sum);
+            } else if (!assignment.pinned) {
+                freeAssignments.computeIfAbsent(person, p -> new ArrayDeque<>()).add(assignment);
+            }
+        }
+        candidatesByType = new HashMap<>();
+        candidateCursors = new HashMap<>();
+        for (var person : solution.persons) {
+            if (freeAssignments.containsKey(person)) {
+                candidatesByType.computeIfAbsent(person.personType, t -> new ArrayList<>())
+                        .add(person);
+            }
+        }
+
+        var committeesByEvaluatedName = new HashMap<String, Committee>();
+        solution.committees.forEach(c -> committeesByEvaluatedName
+                .put(CommitteeSolution.ordinalKey(c.evaluatedPerson.name), c));
+        followUpCandidates = new HashMap<>();
+        for (var person : freeAssignments.keySet()) {
+            var history = person.hasAlreadyInspected;
+            if (history == null || history.isEmpty()) {
+                continue;
+            }
+            for (var evaluatedName : history.get(0)) {
+                var committee =
+                        committeesByEvaluatedName.get(CommitteeSolution.ordinalKey(evaluatedName));
+                if (committee != null) {
+                    followUpCandidates.computeIfAbsent(committee, c -> new ArrayList<>())
+                            .add(person);
+                }
+            }
+        }
+    }
+
+    // The committees needing the rarest skills first, those without required skills last
+    private List<Committee> orderByScarcity(List<Committee> committees) {
+        var nbPersonsBySkill = new HashMap<String, Integer>();
+        for (var person : solution.persons) {
+            person.skills.forEach(
+                    skill -> nbPersonsBySkill.merge(CommitteeSolution.ordinalKey(skill.name), 1,
+                            Integer::sum));
+        }
+        var scarcities = new HashMap<Committee, Integer>();
+        for (var committee : committees) {
+            int scarcity = committee.evaluatedPerson.requiredSkills.stream()
+                    .mapToInt(skill -> nbPersonsBySkill
+                            .getOrDefault(CommitteeSolution.ordinalKey(skill.name), 0))
+                    .min().orElse(Integer.MAX_VALUE);
+            scarcities.put(committee, scarcity);
+        }
+        var ordered = new ArrayList<>(committees);
+        ordered.sort(Comparator.comparing(scarcities::get));
+        return ordered;
+    }
+
+    private void fill(ScoreDirector<CommitteeSolution> scoreDirector, Committee committee) {
+        int nbProfessionals = settings.nbProParticipants.getMin() - committee.nbProfessionals;
+        int nbNonProfessionals =
+                settings.nbNonProParticipants.getMin() - committee.nbNonProfessionals;
+        for (int i = 0; i < nbProfessionals; i++) {
+            assignBest(scoreDirector, committee, PersonType.PROFESSIONAL);
+        }
+        for (int i = 0; i < nbNonProfessionals; i++) {
+            assignBest(scoreDirector, committee, PersonType.NON_PROFESSIONAL);
+        }
+    }
+
+    private void assignBest(ScoreDirector<CommitteeSolution> scoreDirector, Committee committee,
+            PersonType personType) {
+        var candidates = candidatesByType.get(personType);
+        if (candidates == null || candidates.isEmpty()) {
+            return;
+        }
+        Person best = null;
+        int bestValue = Integer.MIN_VALUE;
+        // the follow-up candidates are rarely in the compared window
+        if (committee.nbFollowUps < settings.nbInspectorsFollowingUp) {
+            for (var candidate : followUpCandidates.getOrDefault(committee, List.of())) {
+                if (candidate.personType.equals(personType)
+                        && !freeAssignments.get(candidate).isEmpty()
+                        && isAllowed(committee, candidate)) {
+                    int value = value(committee, candidate);
+                    if (value > bestValue) {
+                        best = candidate;
+                        bestValue = value;
+                    }
+                }
+            }
+        }
+        int cursor = candidateCursors.getOrDefault(personType, 0);
+        int lastCompared = cursor;
+        int nbCompared = 0;
+        for (int i = 0; i < candidates.size() && nbCompared < MAX_CANDIDATES; i++) {
+            int index = (cursor + i) % candidates.size();
+            var candidate = candidates.get(index);
+            if (!isAllowed(committee, candidate)) {
+                continue;
+            }
+            nbCompared++;
+            lastCompared = index;
+            int value = value(committee, candidate);
+            if (value > bestValue) {
+                best = candidate;
+                bestValue = value;
+            }
+        }
+        if (best == null) {
+            // left to the local search
+            return;
+        }
+        var assignment = freeAssignments.get(best).poll();
+        scoreDirector.beforeVariableChanged(assignment, "committee");
+        assignment.committee = committee;
+        scoreDirector.afterVariableChanged(assignment, "committee");
+        scoreDirector.triggerVariableListeners();
+
+        nbInspections.merge(best, 1, Integer::sum);
+        travelledDistances.merge(best, assignment.getDistance(), Integer::sum);
+        if (freeAssignments.get(best).isEmpty()) {
+            int index = candidates.indexOf(best);
+            candidates.remove(index);
+            if (index < lastCompared) {
+                lastCompared--;
+            }
+        }
+        candidateCursors.put(personType,
+                candidates.isEmpty() ? 0 : (lastCompared + 1) % candidates.size());
+    }
+
+    // What the hard constraints forbid, whatever the other evaluators
+    private boolean isAllowed(Committee committee, Person candidate) {
+        var evaluated = committee.evaluatedPerson;
+        if (!candidate.canEvaluate(evaluated)
+                || committee.assignments.stream().anyMatch(a -> a.assignedPerson == candidate)) {
+            return false;
+        }
+        if (candidate.hasAlreadyInspectedLastTime(evaluated)
+                && committee.nbFollowUps >= settings.nbInspectorsFollowingUp) {
+            return false;
+        }
+        // the evaluated person must not evaluate the candidate
+        var candidateCommittee = committeesByEvaluatedPerson.get(candidate);
+        if (candidateCommittee != null && candidateCommittee.assignments.stream()
+                .anyMatch(a -> a.assignedPerson == evaluated)) {
+            return false;
+        }
+        int distance = travelledDistances.getOrDefault(candidate, 0)
+                + distance(candidate, evaluated);
+        return !candidate.isNotTravellingInRange(distance);
+    }
+
+    private int value(Committee committee, Person candidate) {
+        var evaluated = committee.evaluatedPerson;
+        int value = 0;
+        if (committee.requiredSkillsNotSatisfied()) {
+            for (var skill : evaluated.requiredSkills) {
+                if (candidate.hasSkill(skill) && committee.assignments.stream()
+                        .noneMatch(a -> a.assignedPerson.hasSkill(skill))) {
+                    value += MISSING_SKILL_WEIGHT;
+                }
+            }
+        }
+        if (committee.nbFollowUps < settings.nbInspectorsFollowingUp
+                && candidate.hasAlreadyInspectedLastTime(evaluated)) {
+            value += FOLLOW_UP_WEIGHT;
+        }
+        if (candidate.maxNumberOfInspections != null
+                && nbInspections.getOrDefault(candidate, 0) < candidate.maxNumberOfInspections) {
+            value += INSPECTIONS_WEIGHT;
+        }
+        if (!Boolean.FALSE.equals(settings.useAvailability)
+                && candidate.isAvailable(committee.timeSlot)) {
+            value += AVAILABILITY_WEIGHT;
+        }
+        value += FREE_ASSIGNMENT_WEIGHT * freeAssignments.get(candidate).size();
+        return value - distance(candidate, evaluated);
+    }
+
+    private int distance(Person candidate, Person evaluated) {
+        var distanceMatrix = settings.distanceMatrix;
+        if (distanceMatrix == null || candidate.location == null || evaluated.location == null) {
+            return 0;
+        }
+        return distanceMatrix.getDistance(candidate.location.index, evaluated.location.index);
+    }
+}
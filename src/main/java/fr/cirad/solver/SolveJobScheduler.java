@@ -0,0 +1,259 @@
+package fr.cirad.solver;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.function.Function;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.optaplanner.core.config.solver.SolverConfig;
+import fr.cirad.domain.SolverOptions;
+
+/**
+ * Admission queue in front of the solver managers. At most max-concurrent-solves jobs are solving,
+ * the others wait in a bounded queue. The next job to start is the one with the highest priority,
+ * then the one of the client with the fewest jobs solving, then the oldest one.
+ */
+@ApplicationScoped
+public class SolveJobScheduler {
+
+    private static final String ANONYMOUS_CLIENT = "";
+
+    // The range of the priorities, 0 by default. The priorities and client ids are not
+    // authenticated, the resource refuses those out of range.
+    public static final int MIN_PRIORITY = -5;
+    public static final int MAX_PRIORITY = 5;
+    public static final int MAX_CLIENT_ID_LENGTH = 64;
+
+    // Weight of the last solve in the estimated solve duration
+    private static final double DURATION_SMOOTHING = 0.3;
+
+    @ConfigProperty(name = "dicoop.scheduler.max-concurrent-solves", defaultValue = "2")
+    int maxConcurrentSolves;
+
+    @ConfigProperty(name = "dicoop.scheduler.max-queue-size", defaultValue = "50")
+    int maxQueueSize;
+
+    @Inject
+    SolverConfig solverConfig;
+
+    @Inject
+    Logger log;
+
+    Clock clock = Clock.systemUTC();
+
+    private final Map<UUID, Job> queuedJobs = new LinkedHashMap<>();
+    private final Map<UUID, Job> runningJobs = new HashMap<>();
+    private long sequence = 0;
+    private Duration estimatedSolveDuration;
+
+    private static class Job {
+        final UUID problemId;
+        final String clientId;
+        final int priority;
+        final long sequence;
+        final Runnable startSolving;
+        Instant startTime;
+
+        Job(UUID problemId, String clientId, int priority, long sequence, Runnable startSolving) {
+            this.problemId = problemId;
+            this.clientId = clientId;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.startSolving = startSolving;
+        }
+    }
+
+    /**
+     * Where a queued job is in the queue, 0 being the next one to start, and when it should
+     * start if the jobs take as long as the previous ones.
+     */
+    public static class ScheduledStart {
+        public final int position;
+        public final Instant estimatedStartTime;
+
+        ScheduledStart(int position, Instant estimatedStartTime) {
+            this.position = position;
+            this.estimatedStartTime = estimatedStartTime;
+        }
+    }
+
+    /**
+     * Queues a job, started by calling startSolving, then {@link #finished(UUID)} must be called
+     * when its solving ends.
+     *
+     * @return false if the queue is full.
+     */
+    public boolean submit(UUID problemId, SolverOptions options, Runnable startSolving) {
+        return submitAll(Map.of(problemId, options), id -> startSolving);
+    }
+
+    /**
+     * Queues several jobs at once, in the iteration order of the map for the same priority and
+     * client, each started by the runnable given for its id.
+     *
+     * @return false if the queue can not hold all of them, none is then queued.
+     */
+    public boolean submitAll(Map<UUID, SolverOptions> optionsByProblemId,
+            Function<UUID, Runnable> startSolving) {
+        synchronized (this) {
+            if (queuedJobs.size() + optionsByProblemId.size() > maxQueueSize) {
+                return false;
+            }
+            optionsByProblemId.forEach((problemId, options) -> {
+                var clientId = options.clientId != null ? options.clientId : ANONYMOUS_CLIENT;
+                var priority = options.priority != null ? Math.max(MIN_PRIORITY,
+                        Math.min(MAX_PRIORITY, options.priority)) : 0;
+                queuedJobs.put(problemId, new Job(problemId, clientId, priority, sequence++,
+                        startSolving.apply(problemId)));
+            });
+        }
+        startJobs();
+        return true;
+    }
+
+    /**
+     * Frees the solving slot of a job and starts the next queued jobs.
+     *
+     * @return false if the job is not solving, it was then already finished.
+     */
+    public boolean finished(UUID problemId) {
+        boolean solving;
+        synchronized (this) {
+            var job = runningJobs.remove(problemId);
+            solving = job != null;
+            if (solving) {
+                var duration = Duration.between(job.startTime, clock.instant());
+                var previous = getEstimatedSolveDuration();
+                estimatedSolveDuration = Duration.ofMillis(Math.round(
+                        DURATION_SMOOTHING * duration.toMillis()
+                                + (1 - DURATION_SMOOTHING) * previous.toMillis()));
+            }
+        }
+        startJobs();
+        return solving;
+    }
+
+    /**
+     * Removes a job from the queue.
+     *
+     * @return false if the job is not queued, it is then solving or done.
+     */
+    public synchronized boolean cancel(UUID problemId) {
+        return queuedJobs.remove(problemId) != null;
+    }
+
+    // Jobs started and not finished yet
+    public synchronized int getNbRunningJobs() {
+        return runningJobs.size();
+    }
+
+    public synchronized int getNbQueuedJobs() {
+        return queuedJobs.size();
+    }
+
+    public int getMaxConcurrentSolves() {
+        return maxConcurrentSolves;
+    }
+
+    // A job is scheduled from its submission until its solving starts
+    public synchronized boolean isScheduled(UUID problemId) {
+        var runningJob = runningJobs.get(problemId);
+        return queuedJobs.containsKey(problemId)
+                || runningJob != null && runningJob.startTime == null;
+    }
+
+    public synchronized Optional<ScheduledStart> getScheduledStart(UUID problemId) {
+        if (!queuedJobs.containsKey(problemId)) {
+            return Optional.empty();
+        }
+        // the solving slots, by the time they should be free
+        var now = clock.instant();
+        var estimatedDuration = getEstimatedSolveDuration();
+        var freeTimes = new PriorityQueue<Instant>();
+        for (var job : runningJobs.values()) {
+            var endTime = job.startTime != null ? job.startTime.plus(estimatedDuration) : now;
+            freeTimes.add(endTime.isAfter(now) ? endTime : now);
+        }
+        while (freeTimes.size() < maxConcurrentSolves) {
+            freeTimes.add(now);
+        }
+        var startOrder = getStartOrder();
+        for (int position = 0; position < startOrder.size(); position++) {
+            var startTime = freeTimes.poll();
+            if (startOrder.get(position).problemId.equals(problemId)) {
+                return Optional.of(new ScheduledStart(position, startTime));
+            }
+            freeTimes.add(startTime.plus(estimatedDuration));
+        }
+        return Optional.empty();
+    }
+
+    private void startJobs() {
+        var startedJobs = new ArrayList<Job>();
+        synchronized (this) {
+            var startOrder = getStartOrder();
+            for (var job : startOrder) {
+                if (runningJobs.size() >= maxConcurrentSolves) {
+                    break;
+                }
+                queuedJobs.remove(job.problemId);
+                runningJobs.put(job.problemId, job);
+                startedJobs.add(job);
+            }
+        }
+        // started outside of the lock, as the solving may end before startSolving returns
+        for (var job : startedJobs) {
+            try {
+                synchronized (this) {
+                    job.startTime = clock.instant();
+                }
+                job.startSolving.run();
+            } catch (RuntimeException e) {
+                log.error("Solving " + job.problemId + " could not be started.", e);
+                finished(job.problemId);
+            }
+        }
+    }
+
+    // The queued jobs in the order they would start, if no other job was submitted
+    private List<Job> getStartOrder() {
+        var nbRunningJobsByClient = new HashMap<String, Integer>();
+        for (var job : runningJobs.values()) {
+            nbRunningJobsByClient.merge(job.clientId, 1, Integer::sum);
+        }
+        var remainingJobs = new ArrayList<>(queuedJobs.values());
+        var startOrder = new ArrayList<Job>(remainingJobs.size());
+        while (!remainingJobs.isEmpty()) {
+            var next = remainingJobs.stream().min(Comparator
+                    .comparingInt((Job job) -> job.priority).reversed()
+                    .thenComparingInt(job -> nbRunningJobsByClient.getOrDefault(job.clientId, 0))
+                    .thenComparingLong(job -> job.sequence)).get();
+            remainingJobs.remove(next);
+            startOrder.add(next);
+            nbRunningJobsByClient.merge(next.clientId, 1, Integer::sum);
+        }
+        return startOrder;
+    }
+
+    // Until a job has been solved, a solve is expected to last the spent limit of the solver
+    private Duration getEstimatedSolveDuration() {
+        if (estimatedSolveDuration != null) {
+            return estimatedSolveDuration;
+        }
+        var terminationConfig = solverConfig != null ? solverConfig.getTerminationConfig() : null;
+        var spentLimit = terminationConfig != null ? terminationConfig.getSpentLimit() : null;
+        return spentLimit != null ? spentLimit : Duration.ofMinutes(5);
+    }
+}
@@ -0,0 +1,220 @@
+package fr.cirad.solver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.optaplanner.core.api.solver.SolverManager;
+import org.optaplanner.core.api.solver.SolverStatus;
+import org.optaplanner.core.api.solver.change.ProblemChange;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.constructionheuristic.placer.QueuedEntityPlacerConfig;
+import org.optaplanner.core.config.heuristic.selector.entity.EntitySelectorConfig;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.partitionedsearch.PartitionedSearchPhaseConfig;
+import org.optaplanner.core.config.phase.PhaseConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.SolverManagerConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.SolverOptions;
+
+/**
+ * Solver managers by number of move threads and of partitions. The default solving uses the
+ * solver manager configured by Quarkus. The multithreaded incremental solving and the partitioned
+ * search use a copy of its solver config, created on first use and then shared by the requests
+ * asking for the same numbers of threads and partitions.
+ */
+@ApplicationScoped
+public class SolverManagerRegistry {
+
+    // Time without improvement after which a part stops, when the solver config has none
+    private static final Duration DEFAULT_PART_UNIMPROVED_SPENT_LIMIT = Duration.ofSeconds(30);
+
+    @Inject
+    SolverManager<CommitteeSolution, UUID> defaultSolverManager;
+
+    @Inject
+    SolverConfig solverConfig;
+
+    @Inject
+    SolverManagerConfig solverManagerConfig;
+
+    // The solver managers run as many solvers in parallel as the job scheduler starts jobs
+    @ConfigProperty(name = "dicoop.scheduler.max-concurrent-solves", defaultValue = "2")
+    int maxConcurrentSolves;
+
+    @ConfigProperty(name = "dicoop.solver.default-move-thread-count", defaultValue = "1")
+    int defaultMoveThreadCount;
+
+    @ConfigProperty(name = "dicoop.solver.max-move-thread-count", defaultValue = "4")
+    int maxMoveThreadCount;
+
+    @ConfigProperty(name = "dicoop.solver.default-partition-count", defaultValue = "1")
+    int defaultPartitionCount;
+
+    @ConfigProperty(name = "dicoop.solver.max-partition-count", defaultValue = "16")
+    int maxPartitionCount;
+
+    // Keyed by move thread count and partition count
+    private final Map<List<Integer>, SolverManager<CommitteeSolution, UUID>> solverManagers =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The number of move threads of a request, the server default if it does not ask for any,
+     * capped by the server maximum. 1 means no move threads.
+     */
+    public int getMoveThreadCount(Integer requestedMoveThreadCount) {
+        return capped(requestedMoveThreadCount, defaultMoveThreadCount, maxMoveThreadCount);
+    }
+
+    /**
+     * The number of partitions of a request, defaulted and capped the same way. 1 means no
+     * partitioned search.
+     */
+    public int getPartitionCount(Integer requestedPartitionCount) {
+        return capped(requestedPartitionCount, defaultPartitionCount, maxPartitionCount);
+    }
+
+    private static int capped(Integer requested, int defaultValue, int max) {
+        return Math.max(1, Math.min(requested != null ? requested : defaultValue, max));
+    }
+
+    public SolverManager<CommitteeSolution, UUID> getSolverManager(SolverOptions options) {
+        int moveThreadCount = getMoveThreadCount(options.moveThreadCount);
+        int partitionCount = getPartitionCount(options.partitionCount);
+        if (moveThreadCount == 1 && partitionCount == 1) {
+            return defaultSolverManager;
+        }
+        return solverManagers.computeIfAbsent(List.of(moveThreadCount, partitionCount),
+                key -> SolverManager.create(
+                        withSolvingMode(solverConfig, moveThreadCount, partitionCount),
+                        solverManagerConfig.copyConfig()
+                                .withParallelSolverCount(String.valueOf(maxConcurrentSolves))));
+    }
+
+    /**
+     * @return A copy of the solver config, with move threads and a partitioned search phase
+     *         followed by a global local search phase, when the counts are greater than 1. The
+     *         parts and the global local search use the phases of the solver config, if any.
+     */
+    public static SolverConfig withSolvingMode(SolverConfig solverConfig, int moveThreadCount,
+            int partitionCount) {
+        var config = solverConfig.copyConfig();
+        if (moveThreadCount > 1) {
+            config.setMoveThreadCount(String.valueOf(moveThreadCount));
+        }
+        if (partitionCount > 1) {
+            var phaseConfigs = config.getPhaseConfigList();
+            var localSearchPhaseConfig = phaseConfigs == null ? new LocalSearchPhaseConfig()
+                    : phaseConfigs.stream().filter(LocalSearchPhaseConfig.class::isInstance)
+                            .map(phaseConfig -> ((LocalSearchPhaseConfig) phaseConfig)
+                                    .copyConfig())
+                            .reduce((first, last) -> last).orElseGet(LocalSearchPhaseConfig::new);
+            // the parts can not check a best score limit of the solver, so only the global local
+            // search stops on it
+            var terminationConfig = config.getTerminationConfig();
+            if (terminationConfig != null && terminationConfig.getBestScoreLimit() != null) {
+                var phaseTermination = localSearchPhaseConfig.getTerminationConfig() != null
+                        ? localSearchPhaseConfig.getTerminationConfig()
+                        : new TerminationConfig();
+                localSearchPhaseConfig.setTerminationConfig(
+                        phaseTermination.withBestScoreLimit(terminationConfig.getBestScoreLimit()));
+                terminationConfig = terminationConfig.copyConfig();
+                terminationConfig.setBestScoreLimit(null);
+                config.setTerminationConfig(terminationConfig);
+            }
+            config.setPhaseConfigList(List.of(partitionedSearchPhaseConfig(partitionCount,
+                    config.getEntityClassList(), terminationConfig, phaseConfigs),
+                    localSearchPhaseConfig));
+        }
+        return config;
+    }
+
+    // The parts stop when their merged best solution does not improve anymore, leaving time to the
+    // global local search
+    private static PartitionedSearchPhaseConfig partitionedSearchPhaseConfig(int partitionCount,
+            List<Class<?>> entityClasses, TerminationConfig solverTermination,
+            List<PhaseConfig> solverPhaseConfigs) {
+        var unimprovedSpentLimit = solverTermination != null
+                && solverTermination.getUnimprovedSpentLimit() != null
+                        ? solverTermination.getUnimprovedSpentLimit()
+                        : DEFAULT_PART_UNIMPROVED_SPENT_LIMIT;
+        var phaseConfig = new PartitionedSearchPhaseConfig();
+        phaseConfig.setSolutionPartitionerClass(LocationClusterPartitioner.class);
+        phaseConfig.setSolutionPartitionerCustomProperties(
+                Map.of("partitionCount", String.valueOf(partitionCount)));
+        var partPhaseConfigs = new ArrayList<PhaseConfig>();
+        if (solverPhaseConfigs != null && !solverPhaseConfigs.isEmpty()) {
+            solverPhaseConfigs.forEach(
+                    partPhase -> partPhaseConfigs.add((PhaseConfig) partPhase.copyConfig()));
+        } else {
+            // like the default phases, a construction heuristic for each entity class
+            for (var entityClass : entityClasses) {
+                var entitySelectorConfig = new EntitySelectorConfig(entityClass);
+                entitySelectorConfig.setId(entityClass.getName());
+                var entityPlacerConfig = new QueuedEntityPlacerConfig();
+                entityPlacerConfig.setEntitySelectorConfig(entitySelectorConfig);
+                var constructionHeuristic = new ConstructionHeuristicPhaseConfig();
+                constructionHeuristic.setEntityPlacerConfig(entityPlacerConfig);
+                partPhaseConfigs.add(constructionHeuristic);
+            }
+            partPhaseConfigs.add(new LocalSearchPhaseConfig());
+        }
+        phaseConfig.setPhaseConfigList(partPhaseConfigs);
+        phaseConfig.setTerminationConfig(
+                new TerminationConfig().withUnimprovedSpentLimit(unimprovedSpentLimit));
+        return phaseConfig;
+    }
+
+    // A problem is solved by a single solver manager, the others ignore its id
+    public SolverStatus getSolverStatus(UUID problemId) {
+        return allSolverManagers().map(solverManager -> solverManager.getSolverStatus(problemId))
+                .filter(status -> status != SolverStatus.NOT_SOLVING).findFirst()
+                .orElse(SolverStatus.NOT_SOLVING);
+    }
+
+    /**
+     * Submits a change to the solver manager solving the problem.
+     *
+     * @return completed once the solver has applied the change.
+     * @throws IllegalStateException if the problem is not being solved.
+     */
+    public CompletableFuture<Void> addProblemChange(UUID problemId,
+            ProblemChange<CommitteeSolution> problemChange) {
+        var solverManager = allSolverManagers()
+                .filter(manager -> manager.getSolverStatus(problemId) != SolverStatus.NOT_SOLVING)
+                .findFirst().orElseThrow(() -> new IllegalStateException(
+                        "The solution " + problemId + " is not being solved."));
+        return solverManager.addProblemChange(problemId, problemChange);
+    }
+
+    /**
+     * Stops the solving of a problem. OptaPlanner cancels a problem still waiting for a solver
+     * thread without calling its final best solution consumer.
+     *
+     * @return true if the problem was still waiting for a solver thread.
+     */
+    public boolean terminateEarly(UUID problemId) {
+        var waiting = getSolverStatus(problemId) == SolverStatus.SOLVING_SCHEDULED;
+        allSolverManagers().forEach(solverManager -> solverManager.terminateEarly(problemId));
+        return waiting;
+    }
+
+    private Stream<SolverManager<CommitteeSolution, UUID>> allSolverManagers() {
+        return Stream.concat(Stream.of(defaultSolverManager), solverManagers.values().stream());
+    }
+
+    @PreDestroy
+    void close() {
+        solverManagers.values().forEach(SolverManager::close);
+    }
+}
@@ -0,0 +1,287 @@
+package fr.cirad.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.SolverOptions;
+import fr.cirad.domain.TimeSlot;
+
+/**
+ * Stores the solutions in a directory, so that they survive restarts, and keeps the recently used
+ * ones in memory. Each solution has its own directory with two gzipped JSON files: the problem,
+ * written when solving starts and updated by the live changes, and the assignments of the last saved
+ * version. A solution which is not in memory is created again from its problem and then assigned.
+ */
+public class FileSolutionStore extends InMemorySolutionStore {
+
+    private static final String PROBLEM_FILE = "problem.json.gz";
+    private static final String SOLUTION_FILE = "solution.json.gz";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    // What a version of a solution adds to its problem, the assignments being in solution order.
+    // They are stored by person, as the ids change when the solution is created again after
+    // persons have been added or removed.
+    public static class StoredSolution {
+        public long version;
+        public String score;
+        public Map<String, String> committeeTimeSlots = new HashMap<>();
+        public List<String> assignedPersons = new ArrayList<>();
+        public List<String> committeeIds = new ArrayList<>();
+        public List<Long> assignmentIds = new ArrayList<>();
+        public List<Boolean> pinned = new ArrayList<>();
+    }
+
+    public FileSolutionStore(Path directory, long maxBytes, ObjectMapper objectMapper) {
+        super(maxBytes);
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void saveProblem(UUID id, SolverOptions options) {
+        write(solutionDirectory(id).resolve(PROBLEM_FILE), options);
+    }
+
+    @Override
+    public synchronized void updateProblem(UUID id, Consumer<SolverOptions> change) {
+        var problemFile = solutionDirectory(id).resolve(PROBLEM_FILE);
+        var options = read(problemFile, SolverOptions.class);
+        change.accept(options);
+        write(problemFile, options);
+    }
+
+    @Override
+    public void save(CommitteeSolution solution) {
+        super.save(solution);
+        write(solutionDirectory(solution.id).resolve(SOLUTION_FILE), toStoredSolution(solution));
+    }
+
+    @Override
+    public Optional<CommitteeSolution> find(UUID id) {
+        var solution = super.find(id);
+        if (solution.isPresent()
+                || !Files.exists(solutionDirectory(id).resolve(PROBLEM_FILE))) {
+            return solution;
+        }
+        try {
+            return Optional.of(solutions.get(id, () -> load(id)));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The solution " + id + " can not be loaded.",
+                    e.getCause());
+        }
+    }
+
+    @Override
+    public synchronized void delete(UUID id) {
+        super.delete(id);
+        if (Files.isDirectory(solutionDirectory(id))) {
+            deleteDirectory(solutionDirectory(id));
+        }
+    }
+
+    /**
+     * Deletes the directories of the solutions whose files were last written before the given
+     * time. Directories which are not solutions are left as they are.
+     */
+    @Override
+    public synchronized void deleteSavedBefore(Instant time, Predicate<UUID> inUse) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> solutionDirectories;
+        try (var files = Files.list(directory)) {
+            solutionDirectories = files.filter(Files::isDirectory).collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not list " + directory, e);
+        }
+        for (var solutionDirectory : solutionDirectories) {
+            UUID id;
+            try {
+                id = UUID.fromString(solutionDirectory.getFileName().toString());
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            if (lastSaved(solutionDirectory).isBefore(time) && !inUse.test(id)) {
+                super.delete(id);
+                deleteDirectory(solutionDirectory);
+            }
+        }
+    }
+
+    // The solutions on disk, including those not in memory
+    @Override
+    public long size() {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (var files = Files.list(directory)) {
+            return files.filter(Files::isDirectory).count();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not list " + directory, e);
+        }
+    }
+
+    private Path solutionDirectory(UUID id) {
+        return directory.resolve(id.toString());
+    }
+
+    // The directory itself counts, as it is created just before the problem is written
+    private static Instant lastSaved(Path solutionDirectory) {
+        try (var files = Files.list(solutionDirectory)) {
+            return Stream.concat(Stream.of(solutionDirectory), files)
+                    .map(FileSolutionStore::lastModified).max(Comparator.naturalOrder()).get();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not list " + solutionDirectory, e);
+        }
+    }
+
+    private static Instant lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not read the time of " + file, e);
+        }
+    }
+
+    private static void deleteDirectory(Path solutionDirectory) {
+        try (var files = Files.walk(solutionDirectory)) {
+            for (var file : files.sorted(Comparator.reverseOrder())
+                    .collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not delete " + solutionDirectory, e);
+        }
+    }
+
+    private CommitteeSolution load(UUID id) {
+        var options = read(solutionDirectory(id).resolve(PROBLEM_FILE), SolverOptions.class);
+        var solution = new CommitteeSolution(id, options);
+        var solutionFile = solutionDirectory(id).resolve(SOLUTION_FILE);
+        if (Files.exists(solutionFile)) {
+            restore(solution, read(solutionFile, StoredSolution.class));
+        }
+        return solution;
+    }
+
+    static StoredSolution toStoredSolution(CommitteeSolution solution) {
+        var stored = new StoredSolution();
+        stored.version = solution.version;
+        stored.score = solution.score != null ? solution.score.toString() : null;
+        for (var committee : solution.committees) {
+            if (committee.timeSlot != null) {
+                stored.committeeTimeSlots.put(committee.id, committee.timeSlot.name);
+            }
+        }
+        for (var assignment : solution.committeeAssignments) {
+            stored.assignedPersons.add(assignment.assignedPerson.name);
+            stored.committeeIds.add(assignment.committee != null ? assignment.committee.id : null);
+            stored.assignmentIds.add(assignment.id);
+            stored.pinned.add(assignment.pinned);
+        }
+        return stored;
+    }
+
+    static void restore(CommitteeSolution solution, StoredSolution stored) {
+        solution.version = stored.version;
+        solution.score = stored.score != null ? HardMediumSoftScore.parseScore(stored.score) : null;
+        var committees = solution.committees.stream()
+                .collect(Collectors.toMap(c -> c.id, Function.identity()));
+        var timeSlots = solution.timeSlots.stream()
+                .collect(Collectors.toMap(t -> t.name, Function.identity(), (a, b) -> a));
+        stored.committeeTimeSlots.forEach((committeeId, timeSlotName) -> {
+            Committee committee = committees.get(committeeId);
+            TimeSlot timeSlot = timeSlots.get(timeSlotName);
+            if (committee != null) {
+                committee.timeSlot = timeSlot;
+            }
+        });
+        // the stored version replaces the initial assignments the solution was created with
+        solution.committees.forEach(committee -> committee.assignments.clear());
+        // each person takes its assignment of the stored id, else its first one by id, as the
+        // shuffled order of the participants differs each time the solution is created
+        var assignmentsByPerson = new LinkedHashMap<String, ArrayDeque<CommitteeAssignment>>();
+        for (var assignment : solution.committeeAssignments.stream().sorted()
+                .collect(Collectors.toList())) {
+            assignment.committee = null;
+            assignment.pinned = false;
+            assignmentsByPerson.computeIfAbsent(assignment.assignedPerson.name,
+                    name -> new ArrayDeque<>()).add(assignment);
+        }
+        var orderedAssignments =
+                new ArrayList<CommitteeAssignment>(solution.committeeAssignments.size());
+        for (int i = 0; i < stored.assignedPersons.size(); i++) {
+            var personAssignments = assignmentsByPerson.get(stored.assignedPersons.get(i));
+            if (personAssignments == null || personAssignments.isEmpty()) {
+                continue;
+            }
+            var assignmentId = i < stored.assignmentIds.size() ? stored.assignmentIds.get(i) : null;
+            var assignment = personAssignments.stream()
+                    .filter(a -> a.id.equals(assignmentId)).findFirst()
+                    .orElse(personAssignments.peek());
+            personAssignments.remove(assignment);
+            var committeeId = stored.committeeIds.get(i);
+            assignment.committee = committeeId != null ? committees.get(committeeId) : null;
+            if (assignment.committee != null) {
+                assignment.committee.assignments.add(assignment);
+            }
+            assignment.pinned =
+                    i < stored.pinned.size() && Boolean.TRUE.equals(stored.pinned.get(i));
+            orderedAssignments.add(assignment);
+        }
+        // assignments unknown to the stored version stay unassigned
+        assignmentsByPerson.values().forEach(orderedAssignments::addAll);
+        solution.committeeAssignments = orderedAssignments;
+        solution.committees.forEach(Committee::resetComposition);
+    }
+
+    private void write(Path file, Object value) {
+        try {
+            Files.createDirectories(file.getParent());
+            var temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(),
+                    ".tmp");
+            try (var output = new GZIPOutputStream(Files.newOutputStream(temporaryFile))) {
+                objectMapper.writeValue(output, value);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not write " + file, e);
+        }
+    }
+
+    private <T> T read(Path file, Class<T> type) {
+        try (var input = new GZIPInputStream(Files.newInputStream(file))) {
+            return objectMapper.readValue(input, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not read " + file, e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package fr.cirad.store;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.SolverOptions;
+
+/**
+ * Keeps the solutions in memory, the least recently used ones being evicted when their estimated
+ * size exceeds the maximum. Evicted solutions are lost.
+ */
+public class InMemorySolutionStore implements SolutionStore {
+
+    // Measured on generated problems, the skills, availability and history of a person take a few
+    // kilobytes and its vetoes and inspection history grow with the number of persons
+    private static final int ESTIMATED_BYTES_PER_PERSON = 3_000;
+
+    protected final Cache<UUID, CommitteeSolution> solutions;
+
+    // The last saved version of each solution, apart from the solutions so that an eviction does
+    // not reuse a version
+    private final Map<UUID, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public InMemorySolutionStore(long maxBytes) {
+        // a single segment, as a large solution may weigh more than a segment share of the maximum
+        solutions = CacheBuilder.newBuilder().concurrencyLevel(1).maximumWeight(maxBytes)
+                .weigher((UUID id, CommitteeSolution solution) -> estimateBytes(solution))
+                .build();
+    }
+
+    static int estimateBytes(CommitteeSolution solution) {
+        long nbPersons = solution.persons != null ? solution.persons.size() : 0;
+        return (int) Math.min(Integer.MAX_VALUE,
+                nbPersons * (ESTIMATED_BYTES_PER_PERSON + nbPersons));
+    }
+
+    @Override
+    public void saveProblem(UUID id, SolverOptions options) {
+        // the solution is all there is to keep
+    }
+
+    @Override
+    public void updateProblem(UUID id, Consumer<SolverOptions> change) {
+        // the changes are made to the solution itself
+    }
+
+    @Override
+    public void save(CommitteeSolution solution) {
+        solution.version =
+                versions.computeIfAbsent(solution.id, this::lastSavedVersion).incrementAndGet();
+        solutions.put(solution.id, solution);
+    }
+
+    // The version of the solution found, for its first save since the start, -1 if there is none
+    private AtomicLong lastSavedVersion(UUID id) {
+        return new AtomicLong(find(id).map(solution -> solution.version).orElse(-1L));
+    }
+
+    @Override
+    public Optional<CommitteeSolution> find(UUID id) {
+        return Optional.ofNullable(solutions.getIfPresent(id));
+    }
+
+    @Override
+    public void delete(UUID id) {
+        solutions.invalidate(id);
+        versions.remove(id);
+    }
+
+    @Override
+    public void deleteSavedBefore(Instant time, Predicate<UUID> inUse) {
+        // the memory is already bounded by the maximum size
+    }
+
+    @Override
+    public long size() {
+        return solutions.size();
+    }
+}
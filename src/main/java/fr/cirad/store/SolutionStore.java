@@ -0,0 +1,48 @@
+package fr.cirad.store;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.SolverOptions;
+
+/**
+ * Where the solutions are kept between the solve request, the best solutions of the solver and the
+ * requests of the clients. The implementation is chosen with dicoop.store.type.
+ */
+public interface SolutionStore {
+
+    /**
+     * Saves the problem of a new solution, before the solution is created from it, as creating the
+     * solution initializes the options.
+     */
+    void saveProblem(UUID id, SolverOptions options);
+
+    /**
+     * Changes the saved problem of a solution, for the changes made to the solution while it is
+     * solved, so that it is created again with them.
+     */
+    void updateProblem(UUID id, Consumer<SolverOptions> change);
+
+    /**
+     * Saves a new version of a solution: its version is set to the one after the last saved
+     * version of its id, whether or not that solution is still in memory.
+     */
+    void save(CommitteeSolution solution);
+
+    Optional<CommitteeSolution> find(UUID id);
+
+    // Deletes a solution and its problem, for a problem refused once saved
+    void delete(UUID id);
+
+    /**
+     * Deletes the solutions last saved before the given time, except those in use, for the
+     * retention of dicoop.store.retention.
+     */
+    void deleteSavedBefore(Instant time, Predicate<UUID> inUse);
+
+    // The number of solutions kept, for the metrics
+    long size();
+}
@@ -0,0 +1,39 @@
+package fr.cirad.store;
+
+import java.nio.file.Paths;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Produces;
+import javax.inject.Inject;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import io.quarkus.runtime.configuration.MemorySize;
+
+@ApplicationScoped
+public class SolutionStoreProducer {
+
+    @ConfigProperty(name = "dicoop.store.type", defaultValue = "file")
+    String type;
+
+    @ConfigProperty(name = "dicoop.store.directory", defaultValue = "data/solutions")
+    String directory;
+
+    @ConfigProperty(name = "dicoop.store.cache-size", defaultValue = "512M")
+    MemorySize cacheSize;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Produces
+    @ApplicationScoped
+    SolutionStore solutionStore() {
+        switch (type) {
+            case "file":
+                return new FileSolutionStore(Paths.get(directory), cacheSize.asLongValue(),
+                        objectMapper);
+            case "memory":
+                return new InMemorySolutionStore(cacheSize.asLongValue());
+            default:
+                throw new IllegalArgumentException("Unknown solution store type: " + type);
+        }
+    }
+}
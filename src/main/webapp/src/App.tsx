@@ -16,12 +16,14 @@ import { useLocalStorage, useSetState } from "@mantine/hooks";
 import { useEffect, useRef, useState } from "react";
 import { Trans, useTranslation } from "react-i18next";
 import {
+  CommitteeAssignment,
   CommitteeSolutionResourceApi,
   Configuration,
   Person,
   Range,
   Settings,
   SolverOptions,
+  SolverStatus,
 } from "./api";
 import "./App.css";
 import DistancesTable from "./Distances/DistancesTable";
@@ -30,6 +32,10 @@ import { useErrorMessage } from "./ErrorMessage/ErrorMessageContext";
 import HeaderMenu from "./HeaderMenu/HeaderMenu";
 import HistoryTable from "./History/HistoryTable";
 import { ReactComponent as DicoopLogo } from "./images/logo.svg";
+import {
+  applyBestSolutionEvent,
+  BestSolutionEvent,
+} from "./Model/BestSolutionEvent";
 import { CommitteeSet } from "./Model/CommitteeSet";
 import {
   DEFAULT_SETTINGS_STATE,
@@ -341,9 +347,7 @@ function App() {
           //console.log(options.participants)
           //console.log(committeeSolution.committees);
           
-          setTimeout(() => {
-            refreshSolution(solutionId);
-          }, 2000);
+          subscribeToSolution(solutionId);
         })
         .catch((error) => {
           setIsSolving(false);
@@ -379,7 +383,10 @@ function App() {
       .apiCommitteeSolutionIdGet(id)
       .then((res) => {
         setCommitteeSolution(Solution.fromCommitteeSolution(res.data));
-        if (res.data.solverStatus === "SOLVING_ACTIVE") {
+        if (
+          res.data.solverStatus === SolverStatus.SolvingActive ||
+          res.data.solverStatus === SolverStatus.SolvingScheduled
+        ) {
           setTimeout(() => {
             refreshSolution(id);
           }, 2000);
@@ -396,6 +403,50 @@ function App() {
       });
   };
 
+  // Best solutions pushed by the server while solving
+  const solutionEvents = useRef<EventSource | null>(null);
+
+  const closeSolutionEvents = () => {
+    solutionEvents.current?.close();
+    solutionEvents.current = null;
+  };
+
+  const subscribeToSolution = (id: string) => {
+    setSolutionTabDisabled(false);
+    setActiveTabKey(3);
+    closeSolutionEvents();
+    // the first event has all the assignments, the next ones only the changed ones
+    let assignments = [] as Array<CommitteeAssignment>;
+    const eventSource = new EventSource(
+      `${window.location.origin}/api/committeeSolution/${id}/events`
+    );
+    eventSource.onmessage = (message) => {
+      const event = JSON.parse(message.data) as BestSolutionEvent;
+      assignments = applyBestSolutionEvent(assignments, event);
+      setCommitteeSolution(
+        Solution.fromCommitteeSolution({
+          id: event.id,
+          committeeAssignments: assignments,
+          score: event.score,
+          solverStatus: event.solverStatus,
+        })
+      );
+      if (event.solverStatus === SolverStatus.NotSolving) {
+        closeSolutionEvents();
+        // to get the score explanation of the final solution
+        refreshSolution(id);
+      }
+    };
+    eventSource.onerror = () => {
+      // the stream was lost while solving, polling instead
+      if (solutionEvents.current === eventSource) {
+        closeSolutionEvents();
+        refreshSolution(id);
+      }
+    };
+    solutionEvents.current = eventSource;
+  };
+
   // file picker
   const inputFile = useRef<HTMLInputElement>(null);
   const handleFileOpened = (e: any) => {
@@ -0,0 +1,26 @@
+import {
+  CommitteeAssignment,
+  HardMediumSoftScore,
+  SolverStatus,
+} from "src/api";
+
+// Best solution pushed by the server while solving, see BestSolutionPublisher
+export interface BestSolutionEvent {
+  id: string;
+  score: HardMediumSoftScore;
+  solverStatus: SolverStatus;
+  changedAssignments: Array<CommitteeAssignment>;
+  removedAssignmentIds: Array<number>;
+}
+
+export const applyBestSolutionEvent = (
+  assignments: Array<CommitteeAssignment>,
+  event: BestSolutionEvent
+): Array<CommitteeAssignment> => {
+  const assignmentsById = new Map<number | undefined, CommitteeAssignment>(
+    assignments.map((a) => [a.id, a])
+  );
+  event.removedAssignmentIds.forEach((id) => assignmentsById.delete(id));
+  event.changedAssignments.forEach((a) => assignmentsById.set(a.id, a));
+  return Array.from(assignmentsById.values());
+};
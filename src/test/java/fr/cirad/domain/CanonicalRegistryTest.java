@@ -0,0 +1,92 @@
+package fr.cirad.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class CanonicalRegistryTest {
+
+    @Test
+    void registryTest() {
+        var registry = new CanonicalRegistry();
+        var culture = new Skill("Culture");
+        assertSame(culture, registry.skill(culture));
+        assertSame(culture, registry.skill("cULTURE"));
+        assertSame(culture, registry.skill(new Skill("culture")));
+        assertEquals(0, culture.ordinal);
+        assertEquals(1, registry.skill("Farming").ordinal);
+        assertEquals(2, registry.getNbSkills());
+
+        // the constants come first, the other types after them
+        assertSame(PersonType.EXTERNAL, registry.personType("External"));
+        assertEquals(2, PersonType.EXTERNAL.ordinal);
+        assertEquals(4, registry.personType("Trainee").ordinal);
+        assertSame(registry.location("Paris"), registry.location(new Location("PARIS")));
+    }
+
+    @Test
+    void hashCodeTest() {
+        // consistent with equals, which ignores case
+        for (var names : new String[][] {{"Culture", "cULTURE"}, {"Élevage", "éLEVAGE"}}) {
+            assertEquals(new Skill(names[0]), new Skill(names[1]));
+            assertEquals(new Skill(names[0]).hashCode(), new Skill(names[1]).hashCode());
+            assertEquals(new TimeSlot(names[0]).hashCode(), new TimeSlot(names[1]).hashCode());
+            assertEquals(new Location(names[0]).hashCode(), new Location(names[1]).hashCode());
+        }
+        assertEquals(new PersonType("Professional").hashCode(),
+                PersonType.PROFESSIONAL.hashCode());
+    }
+
+    @Test
+    void solutionTest() {
+        var options = SolverOptionsGenerator.ofSize(50, 0L).generate();
+        // a separate instance for each value, with the case of the name changing
+        for (var person : options.participants) {
+            person.skills = person.skills.stream()
+                    .map(s -> new Skill(s.name.toUpperCase(Locale.ROOT)))
+                    .collect(Collectors.toList());
+            person.availability = person.availability.stream().map(t -> new TimeSlot(t.name))
+                    .collect(Collectors.toList());
+            person.location = new Location(person.location.name);
+        }
+        var solution = new CommitteeSolution(UUID.randomUUID(), options);
+
+        var skills = new HashMap<String, Skill>();
+        for (var person : solution.persons) {
+            for (var skill : person.skills) {
+                assertSame(skills.computeIfAbsent(skill.name.toLowerCase(Locale.ROOT),
+                        k -> skill), skill);
+            }
+            for (var skill : person.requiredSkills) {
+                assertSame(skills.computeIfAbsent(skill.name.toLowerCase(Locale.ROOT),
+                        k -> skill), skill);
+            }
+            for (var timeSlot : person.availability) {
+                assertTrue(solution.timeSlots.stream().anyMatch(t -> t == timeSlot));
+            }
+            assertSame(solution.registry.location(person.location.name), person.location);
+        }
+        assertEquals(skills.size(), solution.registry.getNbSkills());
+
+        // the ordinals do not change when persons are added
+        var ordinals = skills.values().stream()
+                .collect(Collectors.toMap(s -> s.name, s -> s.ordinal));
+        var newcomer = new Person("Newcomer", null);
+        newcomer.skills.add(new Skill("Beekeeping"));
+        newcomer.skills.add(new Skill(solution.persons.get(0).skills.get(0).name));
+        solution.initPerson(newcomer);
+        solution.persons.add(newcomer);
+        solution.compilePersons();
+        skills.values().forEach(s -> assertEquals(ordinals.get(s.name), s.ordinal));
+        assertEquals(skills.size(), newcomer.skills.get(0).ordinal);
+        assertSame(solution.persons.get(0).skills.get(0), newcomer.skills.get(1));
+        assertNotSame(solution.persons.get(0), newcomer);
+        assertTrue(newcomer.hasSkill(new Skill("beekeeping")));
+    }
+}
@@ -0,0 +1,69 @@
+package fr.cirad.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static fr.cirad.domain.TestFixtures.loadDefaultSolverOptions;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.EnvironmentMode;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+class CommitteeCompositionVariableListenerTest {
+
+    @Test
+    void countersStayConsistentWhileSolvingTest() throws IOException {
+        assertCountersConsistent(solve(null));
+    }
+
+    @Test
+    void countersStayConsistentWithMoveThreadsTest() throws IOException {
+        // each move thread works on its own clone, rebased on the working solution
+        assertCountersConsistent(solve("2"));
+    }
+
+    private CommitteeSolution solve(String moveThreadCount) throws IOException {
+        // FULL_ASSERT fails on any shadow variable or incremental score corruption
+        var solverConfig = TestFixtures.solverConfig()
+                .withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                .withMoveThreadCount(moveThreadCount)
+                .withTerminationConfig(
+                        new TerminationConfig().withScoreCalculationCountLimit(20_000L));
+        var problem = new CommitteeSolution(UUID.randomUUID(), loadDefaultSolverOptions());
+        return SolverFactory.<CommitteeSolution>create(solverConfig).buildSolver().solve(problem);
+    }
+
+    // Each committee must be in the state a recomputation from its assignments gives
+    private void assertCountersConsistent(CommitteeSolution solution) {
+        for (var committee : solution.committees) {
+            var recomputed = new Committee();
+            recomputed.evaluatedPerson = committee.evaluatedPerson;
+            recomputed.assignments = new ArrayList<>(committee.assignments);
+            recomputed.resetComposition();
+
+            var id = committee.id;
+            assertEquals(recomputed.nbProfessionals, committee.nbProfessionals, id);
+            assertEquals(recomputed.nbNonProfessionals, committee.nbNonProfessionals, id);
+            assertEquals(recomputed.nbDuplicatedEvaluators, committee.nbDuplicatedEvaluators, id);
+            assertEquals(recomputed.nbFollowUps, committee.nbFollowUps, id);
+            assertEquals(recomputed.nbRotationBreaks, committee.nbRotationBreaks, id);
+            assertEquals(recomputed.nbMissingRequiredSkills, committee.nbMissingRequiredSkills,
+                    id);
+            assertEquals(recomputed.getRequiredSkillCoverage(),
+                    committee.getRequiredSkillCoverage(), id);
+            // a multiset, whose order depends on the order of the changes
+            assertEquals(sorted(recomputed.getEvaluators()), sorted(committee.getEvaluators()),
+                    id);
+        }
+    }
+
+    private static List<Person> sorted(List<Person> persons) {
+        var sorted = new ArrayList<>(persons);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+}
@@ -26,6 +26,7 @@ class CommitteeTest {
         var assignment2 = new CommitteeAssignment(2l, person3, distanceMatrix);
         assignment2.committee = committee1;
         committee1.assignments = List.of(assignment1, assignment2);
+        committee1.resetComposition();
         // Test with min 2 Pros
         assertTrue(committee1.hasCorrectNumberOfMinNonProfessionalPersons());
         // Test with min 1 NonPro
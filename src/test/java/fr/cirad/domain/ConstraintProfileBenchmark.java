@@ -0,0 +1,49 @@
+package fr.cirad.domain;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.UUID;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import fr.cirad.solver.ConstraintProfiler;
+
+/**
+ * Runs the {@link ConstraintProfiler} on generated problems and writes the ranked constraints of
+ * each size to build/constraint-profile/constraint-profile-{size}.json. The sizes are the numbers
+ * of persons, given as arguments, 1000 by default, then the number of moves can be given with the
+ * dicoop.profile.moves system property.
+ */
+public class ConstraintProfileBenchmark {
+
+    private static final int[] DEFAULT_SIZES = {1_000};
+
+    private static final long SEED = 0L;
+
+    private static final String MOVES_PROPERTY = "dicoop.profile.moves";
+
+    private static final Path REPORT_DIRECTORY = Path.of("build", "constraint-profile");
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = args.length == 0 ? DEFAULT_SIZES
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        int nbMoves = Integer.getInteger(MOVES_PROPERTY, 100_000);
+        var mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Files.createDirectories(REPORT_DIRECTORY);
+        for (int size : sizes) {
+            var solution = new CommitteeSolution(UUID.randomUUID(),
+                    SolverOptionsGenerator.ofSize(size, SEED).generate());
+            var profiler = new ConstraintProfiler(solution, nbMoves, SEED);
+            // the first profile warms up the JIT compiler
+            profiler.profile();
+            var profile = profiler.profile();
+            var report = REPORT_DIRECTORY.resolve("constraint-profile-" + size + ".json");
+            mapper.writeValue(report.toFile(), profile);
+            System.out.println(size + " persons, " + profile.nanosPerMove
+                    + " ns/move with all the constraints:");
+            profile.constraints.forEach(cost -> System.out.println("  " + cost));
+            System.out.println("Constraint profile report: " + report.toAbsolutePath());
+        }
+    }
+}
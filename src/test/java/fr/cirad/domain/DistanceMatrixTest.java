@@ -0,0 +1,24 @@
+package fr.cirad.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DistanceMatrixTest {
+
+    @Test
+    void distanceByIndexTest() {
+        var distanceMatrix = new DistanceMatrix(List.of("Centre", "Nord", "Est"),
+                new Integer[][] {{0, 1, 3}, {1, 0, 2}, {3, 2, 0}});
+        distanceMatrix.init();
+        var nord = distanceMatrix.indexOf("Nord");
+        var est = distanceMatrix.indexOf("Est");
+        assertEquals(1, nord);
+        assertEquals(2, distanceMatrix.getDistance(nord, est));
+        assertEquals(3, distanceMatrix.getDistance("Centre", "Est"));
+        // unknown locations are not travelling anywhere
+        assertEquals(-1, distanceMatrix.indexOf("Sud"));
+        assertEquals(0, distanceMatrix.getDistance("Sud", "Est"));
+    }
+
+}
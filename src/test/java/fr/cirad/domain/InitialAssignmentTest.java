@@ -0,0 +1,92 @@
+package fr.cirad.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+class InitialAssignmentTest {
+
+    private static SolverOptions generate() {
+        return SolverOptionsGenerator.ofSize(100, 0L).generate();
+    }
+
+    private static CommitteeSolution solve(CommitteeSolution problem) {
+        var solverConfig = TestFixtures.solverConfig()
+                .withTerminationConfig(
+                        new TerminationConfig().withSpentLimit(Duration.ofSeconds(3)));
+        return SolverFactory.<CommitteeSolution>create(solverConfig).buildSolver().solve(problem);
+    }
+
+    @Test
+    void initialAssignmentsTest() {
+        var options = generate();
+        var assigned = options.participants.get(0);
+        var evaluated = options.participants.stream().filter(p -> p.needsEvaluation)
+                .filter(p -> p != assigned).findFirst().get();
+        var timeSlot = evaluated.availability.get(0).name;
+        options.initialAssignments = List.of(
+                new InitialAssignment(assigned.name.toUpperCase(), evaluated.name, timeSlot, true),
+                new InitialAssignment("Unknown", evaluated.name, null, false),
+                new InitialAssignment(assigned.name, "Unknown", null, false));
+
+        var solution = new CommitteeSolution(UUID.randomUUID(), options);
+        var committee = solution.getCommitteeByEvaluatedPersonName(evaluated.name).get();
+        assertEquals(List.of(assigned.name), committee.assignments.stream()
+                .map(a -> a.assignedPerson.name).collect(Collectors.toList()));
+        assertTrue(committee.assignments.get(0).pinned);
+        assertEquals(timeSlot, committee.timeSlot.name);
+        assertTrue(committee.pinned);
+        assertEquals(committee.assignments.size(),
+                committee.nbProfessionals + committee.nbNonProfessionals);
+        assertEquals(1, solution.committeeAssignments.stream().filter(a -> a.committee != null)
+                .count());
+    }
+
+    @Test
+    void pinnedAssignmentsAreKeptTest() {
+        var solution = solve(new CommitteeSolution(UUID.randomUUID(), generate()));
+
+        // solve again from the solution, half of the assignments being pinned
+        var options = generate();
+        options.initialAssignments = new ArrayList<>();
+        boolean pinned = false;
+        for (var assignment : solution.committeeAssignments) {
+            if (assignment.committee != null) {
+                var timeSlot = assignment.committee.timeSlot;
+                options.initialAssignments.add(new InitialAssignment(
+                        assignment.assignedPerson.name, assignment.committee.id,
+                        timeSlot != null ? timeSlot.name : null, pinned));
+                pinned = !pinned;
+            }
+        }
+        var problem = new CommitteeSolution(UUID.randomUUID(), options);
+        var warmSolution = solve(problem);
+
+        var pinnedAssignments = warmSolution.committeeAssignments.stream().filter(a -> a.pinned)
+                .collect(Collectors.toList());
+        assertFalse(pinnedAssignments.isEmpty());
+        for (var assignment : pinnedAssignments) {
+            var initial = problem.committeeAssignments.stream()
+                    .filter(a -> a.id.equals(assignment.id)).findFirst().get();
+            assertEquals(initial.committee.id, assignment.committee.id);
+            if (initial.committee.pinned) {
+                assertEquals(initial.committee.timeSlot.name, assignment.committee.timeSlot.name);
+            }
+        }
+        for (var committee : warmSolution.committees) {
+            if (!committee.pinned) {
+                continue;
+            }
+            var initial = problem.getCommitteeByEvaluatedPersonName(committee.id).get();
+            assertEquals(initial.timeSlot.name, committee.timeSlot.name);
+        }
+    }
+}
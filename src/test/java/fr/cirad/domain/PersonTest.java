@@ -0,0 +1,127 @@
+package fr.cirad.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static fr.cirad.domain.TestFixtures.loadDefaultSolverOptions;
+import static fr.cirad.domain.TestFixtures.solverConfig;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+class PersonTest {
+
+    @Test
+    void compiledPredicatesTest() throws IOException {
+        var solution = new CommitteeSolution(UUID.randomUUID(), loadDefaultSolverOptions());
+        for (var person : solution.persons) {
+            assertNotNull(person.skillBits);
+            for (var other : solution.persons) {
+                for (var skill : other.requiredSkills) {
+                    assertEquals(person.skills.contains(skill), person.hasSkill(skill));
+                }
+                assertEquals(person.vetoes.contains(other) || other.vetoes.contains(person),
+                        person.isVetoed(other));
+            }
+            for (var timeSlot : solution.timeSlots) {
+                assertEquals(person.availability.contains(timeSlot),
+                        person.isAvailable(timeSlot));
+            }
+            assertFalse(person.isAvailable(null));
+        }
+    }
+
+    @Test
+    void committeeRangesTest() throws IOException {
+        var solution = new CommitteeSolution(UUID.randomUUID(), loadDefaultSolverOptions());
+        for (var assignment : solution.committeeAssignments) {
+            var person = assignment.assignedPerson;
+            for (var committee : solution.committees) {
+                var evaluated = committee.evaluatedPerson;
+                boolean inRange = assignment.getCommitteeRange().contains(committee);
+                assertEquals(person.canEvaluate(evaluated), inRange);
+                if (person.equals(evaluated) || person.isVetoed(evaluated)
+                        || person.hasAlreadyInspectedInThePast(evaluated)) {
+                    assertFalse(inRange);
+                }
+            }
+        }
+    }
+
+    @Test
+    void committeeRangesOfCloneTest() throws IOException {
+        var solution = new CommitteeSolution(UUID.randomUUID(), loadDefaultSolverOptions());
+        var solverFactory = SolverFactory.<CommitteeSolution>create(solverConfig());
+        try (var scoreDirector = ((DefaultSolverFactory<CommitteeSolution>) solverFactory)
+                .getScoreDirectorFactory().buildScoreDirector()) {
+            var clone = scoreDirector.cloneSolution(solution);
+            for (int i = 0; i < clone.committeeAssignments.size(); i++) {
+                var original = solution.committeeAssignments.get(i);
+                var assignment = clone.committeeAssignments.get(i);
+                // the range is kept on the person, which the clone shares
+                assertSame(clone, assignment.solution);
+                assertSame(original.assignedPerson, assignment.assignedPerson);
+                // and gives the committees of the clone
+                for (var committee : assignment.getCommitteeRange()) {
+                    assertTrue(clone.committees.stream().anyMatch(c -> c == committee));
+                }
+                assertEquals(ids(original.getCommitteeRange()),
+                        ids(assignment.getCommitteeRange()));
+            }
+        }
+    }
+
+    private static List<String> ids(List<Committee> committees) {
+        return committees.stream().map(c -> c.id).collect(Collectors.toList());
+    }
+
+    @Test
+    void vetoIsSymmetricTest() {
+        var settings = new Settings();
+        var person1 = new Person("person1", settings);
+        var person2 = new Person("person2", settings);
+        person1.personType = PersonType.PROFESSIONAL;
+        person2.personType = PersonType.PROFESSIONAL;
+        person1.needsEvaluation = false;
+        person2.needsEvaluation = false;
+        // vetoes are matched ignoring case, as Person.equals does
+        person1.vetoes.add(new Person("PERSON2", null));
+        settings.numberOfAssignmentsForAProfessional = new Range(0, 0);
+        var options = new SolverOptions();
+        options.settings = settings;
+        options.participants = List.of(person1, person2);
+        new CommitteeSolution(UUID.randomUUID(), options);
+        assertTrue(person1.isVetoed(person2));
+        assertTrue(person2.isVetoed(person1));
+    }
+
+    @Test
+    void inspectionHistoryTest() {
+        var settings = new Settings();
+        var inspector = new Person("inspector", settings);
+        var evaluated1 = new Person("evaluated1", settings);
+        var evaluated2 = new Person("evaluated2", settings);
+        inspector.hasAlreadyInspected = List.of(List.of("evaluated1"), List.of("Evaluated2"));
+        var persons = List.of(inspector, evaluated1, evaluated2);
+        for (int i = 0; i < persons.size(); i++) {
+            persons.get(i).ordinal = i;
+        }
+
+        // only the last rotation is taken into account
+        var history = new InspectionHistory(persons, 1);
+        assertTrue(history.hasInspectedLastTime(inspector, evaluated1));
+        assertFalse(history.hasInspectedBeforeLastTime(inspector, evaluated2));
+        assertFalse(history.hasInspectedLastTime(evaluated1, inspector));
+
+        history = new InspectionHistory(persons, 2);
+        assertTrue(history.hasInspectedBeforeLastTime(inspector, evaluated2));
+        assertFalse(history.hasInspectedBeforeLastTime(inspector, evaluated1));
+    }
+
+}
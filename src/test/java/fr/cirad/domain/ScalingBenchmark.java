@@ -0,0 +1,36 @@
+package fr.cirad.domain;
+
+import java.util.Arrays;
+import java.util.UUID;
+import org.optaplanner.benchmark.api.PlannerBenchmarkFactory;
+
+/**
+ * Runs scalingBenchmarkConfig.xml on generated problems of increasing size. The sizes are the
+ * numbers of persons, given as arguments, 100, 1000, 5000 and 10000 by default. The report
+ * gives the score calculation speed, the time to the first feasible solution and the memory use
+ * of each size. Another benchmark config can be given with the dicoop.benchmark.config system
+ * property.
+ */
+public class ScalingBenchmark {
+
+    private static final int[] DEFAULT_SIZES = {100, 1_000, 5_000, 10_000};
+
+    private static final long SEED = 0L;
+
+    private static final String CONFIG_PROPERTY = "dicoop.benchmark.config";
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? DEFAULT_SIZES
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        var problems = Arrays.stream(sizes)
+                .mapToObj(size -> new CommitteeSolution(UUID.randomUUID(),
+                        SolverOptionsGenerator.ofSize(size, SEED).generate()))
+                .toArray(CommitteeSolution[]::new);
+        var benchmark = PlannerBenchmarkFactory
+                .createFromXmlResource(
+                        System.getProperty(CONFIG_PROPERTY, "scalingBenchmarkConfig.xml"))
+                .buildPlannerBenchmark(problems);
+        var report = benchmark.benchmark();
+        System.out.println("Benchmark report: " + report.getAbsolutePath());
+    }
+}
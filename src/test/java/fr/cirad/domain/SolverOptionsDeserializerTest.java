@@ -0,0 +1,90 @@
+package fr.cirad.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.UUID;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+class SolverOptionsDeserializerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private SolverOptions roundTrip(SolverOptions options) throws IOException {
+        return mapper.readValue(mapper.writeValueAsBytes(options), SolverOptions.class);
+    }
+
+    @Test
+    void sharedInstancesTest() throws IOException {
+        var generator = SolverOptionsGenerator.ofSize(200, 0L);
+        generator.vetoDensity = 0.05;
+        var generated = generator.generate();
+        generated.clientId = "federation";
+        generated.priority = 2;
+        var options = roundTrip(generated);
+
+        assertEquals("federation", options.clientId);
+        assertEquals(Integer.valueOf(2), options.priority);
+        assertNull(options.initialAssignments);
+        // the same problem, as the serialization does not change
+        assertEquals(mapper.writeValueAsString(generated), mapper.writeValueAsString(options));
+
+        // one instance by name
+        var skills = Collections.newSetFromMap(new IdentityHashMap<Skill, Boolean>());
+        var locations = Collections.newSetFromMap(new IdentityHashMap<Location, Boolean>());
+        for (var person : options.participants) {
+            assertNull(person.settings);
+            skills.addAll(person.skills);
+            skills.addAll(person.requiredSkills);
+            locations.add(person.location);
+            assertTrue(person.personType == PersonType.PROFESSIONAL
+                    || person.personType == PersonType.NON_PROFESSIONAL);
+        }
+        assertEquals(skills.stream().map(s -> s.name).distinct().count(), skills.size());
+        assertEquals(locations.stream().map(l -> l.name).distinct().count(), locations.size());
+        var solution = new CommitteeSolution(UUID.randomUUID(), options);
+        assertEquals(generator.nbTimeSlots, solution.timeSlots.size());
+    }
+
+    @Test
+    void namesTest() throws IOException {
+        var options = mapper.readValue("{\"settings\": {}, \"participants\": [{\"name\": \"Alice\","
+                + " \"skills\": [\"culture\", {\"name\": \"Culture\"}], \"vetoes\": [{\"name\":"
+                + " \"Bob\", \"skills\": [{\"name\": \"culture\"}]}], \"unknown\": 1},"
+                + " {\"name\": \"Bob\", \"vetoes\": [\"Alice\"]}]}", SolverOptions.class);
+        var alice = options.participants.get(0);
+        assertSame(alice.skills.get(0), alice.skills.get(1));
+        assertEquals("Bob", alice.vetoes.get(0).name);
+        assertTrue(alice.vetoes.get(0).skills.isEmpty());
+    }
+
+    @Test
+    void invalidProblemTest() {
+        var json = "{\"settings\": {}, \"participants\": [{\"name\": \"Alice\"},"
+                + " {\"name\": \"alice\"}, {\"name\": \"Bob\"}]}";
+        var duplicated = assertThrows(JsonMappingException.class,
+                () -> mapper.readValue(json, SolverOptions.class));
+        assertTrue(duplicated.getOriginalMessage().contains("several participants named alice"));
+        // refused where the duplicate is, before the next participants are read
+        assertTrue(duplicated.getLocation().getCharOffset() < json.indexOf("Bob"));
+
+        assertThrows(JsonMappingException.class, () -> mapper.readValue(
+                "{\"settings\": {}, \"participants\": [{\"skills\": []}]}",
+                SolverOptions.class));
+        assertThrows(JsonMappingException.class, () -> mapper.readValue(
+                "{\"settings\": {\"nbProParticipants\": {\"value\": [3, 1]}},"
+                        + " \"participants\": []}",
+                SolverOptions.class));
+        assertThrows(JsonMappingException.class,
+                () -> mapper.readValue("{\"participants\": []}", SolverOptions.class));
+    }
+}
@@ -0,0 +1,216 @@
+package fr.cirad.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded generator of synthetic problems, used to measure how the solver scales beyond the
+ * default problem. The same seed and counts always give the same problem. The settings are the
+ * ones of the default problem: each professional needs an evaluation and does two inspections,
+ * each non professional does one to three inspections.
+ */
+public class SolverOptionsGenerator {
+
+    public int nbPersons = 100;
+    public double professionalRatio = 0.67;
+
+    public int nbSkills = 6;
+    public double skillDensity = 0.5;
+    public int nbRequiredSkills = 2;
+
+    public int nbLocations = 4;
+    // locations are spread on a square of this size, the distances are rounded euclidean ones
+    public int areaSize = 10;
+    // total distance travelled by a person over all the assignments
+    public int maxTravellingDistance = 20;
+
+    public int nbTimeSlots = 3;
+    public double availabilityDensity = 0.6;
+
+    public int nbHistoryYears = 1;
+    public int nbInspectorsFollowingUp = 1;
+
+    // probability that a given pair of persons is vetoed
+    public double vetoDensity = 0.005;
+
+    private final long seed;
+
+    public SolverOptionsGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Scales the number of locations and time slots with the number of persons, keeping about
+     * as many persons per location and committees per time slot as in the default problem.
+     */
+    public static SolverOptionsGenerator ofSize(int nbPersons, long seed) {
+        var generator = new SolverOptionsGenerator(seed);
+        generator.nbPersons = nbPersons;
+        generator.nbLocations = Math.max(4, nbPersons / 15);
+        generator.nbTimeSlots = Math.max(3, nbPersons / 25);
+        generator.nbSkills = Math.max(6, (int) Math.sqrt(nbPersons));
+        return generator;
+    }
+
+    public SolverOptions generate() {
+        var random = new Random(seed);
+        var options = new SolverOptions();
+        options.settings = generateSettings(random);
+
+        var skills = new ArrayList<Skill>();
+        for (int i = 0; i < nbSkills; i++) {
+            skills.add(new Skill("Skill " + i));
+        }
+        var timeSlots = new ArrayList<TimeSlot>();
+        for (int i = 0; i < nbTimeSlots; i++) {
+            timeSlots.add(new TimeSlot("Slot " + i));
+        }
+
+        options.participants = new ArrayList<>(nbPersons);
+        for (int i = 0; i < nbPersons; i++) {
+            var person = new Person("Person " + i, null);
+            boolean professional = random.nextDouble() < professionalRatio;
+            person.personType =
+                    professional ? PersonType.PROFESSIONAL : PersonType.NON_PROFESSIONAL;
+            person.needsEvaluation = professional;
+            person.location = new Location(
+                    options.settings.distanceMatrix.locations.get(random.nextInt(nbLocations)));
+            for (var skill : skills) {
+                if (random.nextDouble() < skillDensity) {
+                    person.skills.add(skill);
+                }
+            }
+            if (professional) {
+                person.requiredSkills.addAll(sample(skills, nbRequiredSkills, random));
+            }
+            for (var timeSlot : timeSlots) {
+                if (random.nextDouble() < availabilityDensity) {
+                    person.availability.add(timeSlot);
+                }
+            }
+            if (person.availability.isEmpty()) {
+                person.availability.add(timeSlots.get(random.nextInt(nbTimeSlots)));
+            }
+            options.participants.add(person);
+        }
+
+        generateVetoes(options.participants, random);
+        generateHistory(options.participants, random);
+        return options;
+    }
+
+    private Settings generateSettings(Random random) {
+        var settings = new Settings();
+        settings.nbProParticipants = new Range(2, 2);
+        settings.numberOfAssignmentsForAProfessional = new Range(2, 2);
+        settings.nbNonProParticipants = new Range(1, 1);
+        settings.numberOfAssignmentsForANonProfessional = new Range(1, 3);
+        settings.nbExternalParticipants = new Range(0, 0);
+        settings.numberOfAssignmentsForAnExternal = new Range(0, 5);
+        settings.nbRotationsToReinspect = nbHistoryYears;
+        settings.nbInspectorsFollowingUp = nbInspectorsFollowingUp;
+        settings.useAvailability = true;
+        settings.shuffleParticipants = false;
+        settings.travellingDistanceRange = new Range(0, maxTravellingDistance);
+
+        // leaves room around an even spread of the committees over the time slots
+        double committeesPerTimeSlot = nbPersons * professionalRatio / nbTimeSlots;
+        settings.committeeMeetingSize = new Range((int) Math.floor(committeesPerTimeSlot * 0.5),
+                (int) Math.ceil(committeesPerTimeSlot * 2));
+
+        var locations = new ArrayList<String>(nbLocations);
+        var x = new double[nbLocations];
+        var y = new double[nbLocations];
+        for (int i = 0; i < nbLocations; i++) {
+            locations.add("Location " + i);
+            x[i] = random.nextDouble() * areaSize;
+            y[i] = random.nextDouble() * areaSize;
+        }
+        var distances = new Integer[nbLocations][nbLocations];
+        for (int i = 0; i < nbLocations; i++) {
+            for (int j = 0; j < nbLocations; j++) {
+                distances[i][j] = (int) Math.round(Math.hypot(x[i] - x[j], y[i] - y[j]));
+            }
+        }
+        settings.distanceMatrix = new DistanceMatrix(locations, distances);
+        return settings;
+    }
+
+    // Draws the vetoed pairs directly rather than testing each pair, which is quadratic
+    private void generateVetoes(List<Person> persons, Random random) {
+        long nbPairs = (long) persons.size() * (persons.size() - 1) / 2;
+        long nbVetoes = Math.round(nbPairs * vetoDensity);
+        var vetoed = new HashSet<Long>();
+        while (vetoed.size() < nbVetoes) {
+            int i = random.nextInt(persons.size());
+            int j = random.nextInt(persons.size());
+            if (i == j) {
+                continue;
+            }
+            long pair = (long) Math.min(i, j) * persons.size() + Math.max(i, j);
+            if (vetoed.add(pair)) {
+                persons.get(i).vetoes.add(new Person(persons.get(j).name, null));
+            }
+        }
+    }
+
+    /**
+     * Each past rotation is a solution of the same settings: committees of two professionals and
+     * one non professional, each professional sitting in two committees. The follow up rule can
+     * then be respected the same way as with a real history.
+     */
+    private void generateHistory(List<Person> persons, Random random) {
+        var professionals = new ArrayList<Person>();
+        var nonProfessionals = new ArrayList<Person>();
+        for (var person : persons) {
+            (person.needsEvaluation ? professionals : nonProfessionals).add(person);
+        }
+        if (professionals.size() < 3 || nonProfessionals.isEmpty()) {
+            return;
+        }
+        for (int year = 0; year < nbHistoryYears; year++) {
+            for (var person : persons) {
+                person.hasAlreadyInspected.add(new ArrayList<>());
+            }
+            var seats = new ArrayList<Person>(professionals);
+            seats.addAll(professionals);
+            Collections.shuffle(seats, random);
+            Collections.shuffle(nonProfessionals, random);
+            for (int i = 0; i < professionals.size(); i++) {
+                var evaluated = professionals.get(i);
+                var committee = new ArrayList<Person>();
+                for (int seat = 2 * i; seat < 2 * i + 2; seat++) {
+                    // a seat taken by the evaluated person or by the other evaluator is swapped
+                    // with a later one, the last seat is left empty if it cannot be
+                    while ((seats.get(seat) == evaluated || committee.contains(seats.get(seat)))
+                            && seat < seats.size() - 1) {
+                        Collections.swap(seats, seat,
+                                seat + 1 + random.nextInt(seats.size() - seat - 1));
+                    }
+                    if (seats.get(seat) != evaluated && !committee.contains(seats.get(seat))) {
+                        committee.add(seats.get(seat));
+                    }
+                }
+                committee.add(nonProfessionals.get(i % nonProfessionals.size()));
+                for (var inspector : committee) {
+                    inspector.hasAlreadyInspected.get(year).add(evaluated.name);
+                }
+            }
+        }
+    }
+
+    private static <T> List<T> sample(List<T> values, int size, Random random) {
+        var sample = new ArrayList<T>(size);
+        var picked = new HashSet<Integer>();
+        while (sample.size() < Math.min(size, values.size())) {
+            int i = random.nextInt(values.size());
+            if (picked.add(i)) {
+                sample.add(values.get(i));
+            }
+        }
+        return sample;
+    }
+}
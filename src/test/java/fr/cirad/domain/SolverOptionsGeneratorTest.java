@@ -0,0 +1,46 @@
+package fr.cirad.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.UUID;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+class SolverOptionsGeneratorTest {
+
+    @Test
+    void sameSeedSameProblemTest() throws JsonProcessingException {
+        var mapper = new ObjectMapper();
+        var first = mapper.writeValueAsString(SolverOptionsGenerator.ofSize(200, 42L).generate());
+        var second = mapper.writeValueAsString(SolverOptionsGenerator.ofSize(200, 42L).generate());
+        var other = mapper.writeValueAsString(SolverOptionsGenerator.ofSize(200, 43L).generate());
+        assertEquals(first, second);
+        assertFalse(first.equals(other));
+    }
+
+    @Test
+    void generatedProblemTest() {
+        var generator = SolverOptionsGenerator.ofSize(1_000, 0L);
+        generator.nbHistoryYears = 2;
+        generator.vetoDensity = 0.01;
+        var options = generator.generate();
+        var solution = new CommitteeSolution(UUID.randomUUID(), options);
+
+        assertEquals(1_000, solution.persons.size());
+        assertEquals(generator.nbTimeSlots, solution.timeSlots.size());
+        assertEquals(solution.persons.stream().filter(p -> p.needsEvaluation).count(),
+                solution.committees.size());
+        long nbVetoes = options.participants.stream().mapToLong(p -> p.vetoes.size()).sum();
+        assertEquals(Math.round(1_000 * 999 / 2 * 0.01), nbVetoes);
+        for (var person : solution.persons) {
+            assertEquals(2, person.hasAlreadyInspected.size());
+            assertFalse(person.availability.isEmpty());
+            assertTrue(person.location.index >= 0);
+            for (var inspected : person.hasAlreadyInspected) {
+                assertFalse(inspected.contains(person.name));
+            }
+        }
+    }
+}
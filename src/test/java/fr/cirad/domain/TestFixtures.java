@@ -0,0 +1,37 @@
+package fr.cirad.domain;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.optaplanner.core.config.solver.SolverConfig;
+import fr.cirad.solver.CommitteeSchedulingConstraintProvider;
+
+/**
+ * The problem and the solver configuration shared by the tests.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+        // static helpers only
+    }
+
+    public static SolverOptions loadDefaultSolverOptions() throws IOException {
+        var mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        var resource = Files.readString(Paths.get("src/test/resources", "default-problem.json"));
+        return mapper.readValue(resource, SolverOptions.class);
+    }
+
+    // The domain and the constraints, without phases nor termination
+    public static SolverConfig solverConfig() {
+        return withDomain(new SolverConfig());
+    }
+
+    // Adds the domain and the constraints to a solver config, like Quarkus does
+    public static SolverConfig withDomain(SolverConfig solverConfig) {
+        return solverConfig.withSolutionClass(CommitteeSolution.class)
+                .withEntityClasses(Committee.class, CommitteeAssignment.class)
+                .withConstraintProviderClass(CommitteeSchedulingConstraintProvider.class);
+    }
+}
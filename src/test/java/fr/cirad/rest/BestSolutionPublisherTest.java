@@ -0,0 +1,78 @@
+package fr.cirad.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.SseEventSink;
+import org.jboss.resteasy.plugins.providers.sse.SseImpl;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.SolverStatus;
+import fr.cirad.domain.CommitteeSolution;
+
+class BestSolutionPublisherTest {
+
+    private static class EventSink implements SseEventSink {
+        final List<BestSolutionEvent> events = new ArrayList<>();
+        boolean closed;
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public CompletionStage<?> send(OutboundSseEvent event) {
+            events.add((BestSolutionEvent) event.getData());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static CommitteeSolution createSolution() {
+        var solution = new CommitteeSolution();
+        solution.id = UUID.randomUUID();
+        solution.committeeAssignments = new ArrayList<>();
+        return solution;
+    }
+
+    @Test
+    void subscribeWhileSolvingTest() {
+        var publisher = new BestSolutionPublisher();
+        var solution = createSolution();
+        publisher.start(solution);
+        var eventSink = new EventSink();
+        publisher.subscribe(solution, SolverStatus.SOLVING_ACTIVE, eventSink, new SseImpl());
+        publisher.publish(solution);
+        assertFalse(eventSink.closed);
+
+        publisher.complete(solution);
+        assertEquals(3, eventSink.events.size());
+        assertEquals(SolverStatus.NOT_SOLVING, eventSink.events.get(2).solverStatus);
+        assertTrue(eventSink.closed);
+    }
+
+    @Test
+    void subscribeAfterCompleteTest() {
+        var publisher = new BestSolutionPublisher();
+        var solution = createSolution();
+        publisher.start(solution);
+        publisher.complete(solution);
+
+        // the subscriber gets the final solution, then its connection is closed
+        var eventSink = new EventSink();
+        publisher.subscribe(solution, SolverStatus.NOT_SOLVING, eventSink, new SseImpl());
+        assertEquals(1, eventSink.events.size());
+        assertEquals(SolverStatus.NOT_SOLVING, eventSink.events.get(0).solverStatus);
+        assertTrue(eventSink.closed);
+    }
+}
@@ -0,0 +1,47 @@
+package fr.cirad.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import java.util.UUID;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.ScoreManager;
+import org.optaplanner.core.api.solver.SolverFactory;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.SolverOptionsGenerator;
+import fr.cirad.domain.TestFixtures;
+
+class ScoreExplanationCacheTest {
+
+    private ScoreExplanationCache createCache() {
+        var solverConfig = TestFixtures.solverConfig();
+        var cache = new ScoreExplanationCache();
+        cache.scoreManager = ScoreManager.create(SolverFactory.create(solverConfig));
+        cache.log = Logger.getLogger(ScoreExplanationCache.class);
+        return cache;
+    }
+
+    @Test
+    void explanationIsCachedByVersionTest() {
+        var cache = createCache();
+        var solution = new CommitteeSolution(UUID.randomUUID(),
+                SolverOptionsGenerator.ofSize(50, 0L).generate());
+
+        var explanation = cache.getScoreExplanation(solution);
+        assertSame(explanation, cache.getScoreExplanation(solution));
+        assertEquals(solution.score, cache.getScore(solution));
+
+        // a saved best solution is a new version
+        var committee = solution.committees.get(0);
+        var assignment = solution.committeeAssignments.get(0);
+        assignment.committee = committee;
+        committee.assignments.add(assignment);
+        committee.resetComposition();
+        solution.score = null;
+        solution.version++;
+        var newExplanation = cache.getScoreExplanation(solution);
+        assertNotSame(explanation, newExplanation);
+        assertSame(newExplanation, cache.getScoreExplanation(solution));
+    }
+}
@@ -0,0 +1,73 @@
+package fr.cirad.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import fr.cirad.solver.SolveJobScheduler;
+
+class SolveBatchesTest {
+
+    private static final Instant NOW = Instant.parse("2022-01-01T00:00:00Z");
+
+    // The jobs waiting for one of the 2 solving slots
+    private final Set<UUID> scheduledIds = new HashSet<>();
+
+    private SolveBatches createBatches() {
+        var solveBatches = new SolveBatches();
+        solveBatches.solveJobScheduler = new SolveJobScheduler() {
+            @Override
+            public synchronized boolean isScheduled(UUID problemId) {
+                return scheduledIds.contains(problemId);
+            }
+
+            @Override
+            public int getMaxConcurrentSolves() {
+                return 2;
+            }
+        };
+        solveBatches.init();
+        setTime(solveBatches, NOW);
+        return solveBatches;
+    }
+
+    private static void setTime(SolveBatches solveBatches, Instant time) {
+        solveBatches.clock = Clock.fixed(time, ZoneOffset.UTC);
+    }
+
+    @Test
+    void jobTimeTest() {
+        var solveBatches = createBatches();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        var batch = solveBatches.create(ids, 100L);
+        assertEquals(NOW.plusSeconds(100), batch.deadline);
+        assertTrue(solveBatches.getJobTime(solveBatches.create(ids, null), ids.get(0)).isEmpty());
+
+        // the first 2 jobs start, the 3 others wait: 2 waves
+        scheduledIds.addAll(ids.subList(2, 5));
+        assertEquals(Duration.ofSeconds(50), solveBatches.getJobTime(batch, ids.get(0)).get());
+
+        // the first job ended early, the time left goes to the last 3 jobs
+        setTime(solveBatches, NOW.plusSeconds(40));
+        scheduledIds.remove(ids.get(2));
+        assertEquals(Duration.ofSeconds(30), solveBatches.getJobTime(batch, ids.get(2)).get());
+        scheduledIds.remove(ids.get(3));
+        assertEquals(Duration.ofSeconds(60), solveBatches.getJobTime(batch, ids.get(3)).get());
+
+        // past the deadline, the jobs still get their construction heuristic
+        setTime(solveBatches, NOW.plusSeconds(95));
+        assertEquals(SolveBatches.MIN_JOB_TIME, solveBatches.getJobTime(batch, ids.get(4)).get());
+        solveBatches.close();
+    }
+}
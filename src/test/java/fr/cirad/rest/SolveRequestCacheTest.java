@@ -0,0 +1,61 @@
+package fr.cirad.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import fr.cirad.domain.SolverOptions;
+import fr.cirad.domain.SolverOptionsGenerator;
+
+class SolveRequestCacheTest {
+
+    private static SolveRequestCache createCache() {
+        var cache = new SolveRequestCache();
+        cache.objectMapper = new ObjectMapper();
+        cache.objectMapper.findAndRegisterModules();
+        cache.expiry = Duration.ofHours(1);
+        cache.init();
+        return cache;
+    }
+
+    private static SolverOptions generate() {
+        return SolverOptionsGenerator.ofSize(50, 0L).generate();
+    }
+
+    @Test
+    void digestTest() {
+        var cache = createCache();
+        var digest = cache.digest(generate());
+
+        // the order of the participants and how the problem is solved do not matter
+        var sameProblem = generate();
+        Collections.reverse(sameProblem.participants);
+        sameProblem.clientId = "client";
+        sameProblem.moveThreadCount = 4;
+        sameProblem.forceNewSolve = true;
+        assertEquals(digest, cache.digest(sameProblem));
+
+        var otherProblem = generate();
+        otherProblem.participants.get(0).needsEvaluation =
+                !otherProblem.participants.get(0).needsEvaluation;
+        assertNotEquals(digest, cache.digest(otherProblem));
+        var otherSettings = generate();
+        otherSettings.settings.shuffleParticipants = true;
+        assertNotEquals(digest, cache.digest(otherSettings));
+    }
+
+    @Test
+    void invalidateTest() {
+        var cache = createCache();
+        var digest = cache.digest(generate());
+        var id = UUID.randomUUID();
+        assertTrue(cache.putIfAbsent(digest, id).isEmpty());
+        assertEquals(id, cache.putIfAbsent(digest, UUID.randomUUID()).get());
+        cache.invalidate(id);
+        assertTrue(cache.putIfAbsent(digest, UUID.randomUUID()).isEmpty());
+    }
+}
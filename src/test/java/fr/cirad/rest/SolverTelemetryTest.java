@@ -0,0 +1,96 @@
+package fr.cirad.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.SolverOptions;
+import fr.cirad.domain.SolverOptionsGenerator;
+import fr.cirad.solver.SolverManagerRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SolverTelemetryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SolverTelemetry createTelemetry() {
+        var telemetry = new SolverTelemetry();
+        telemetry.meterRegistry = meterRegistry;
+        telemetry.solverMetricTags = new SolverMetricTags();
+        meterRegistry.config().meterFilter(telemetry.solverMetricTags);
+        telemetry.solverManagers = new SolverManagerRegistry();
+        telemetry.init();
+        return telemetry;
+    }
+
+    private static void setTime(SolverTelemetry telemetry, long millis) {
+        telemetry.clock = Clock.fixed(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    @Test
+    void bestScoreProgressionTest() {
+        var telemetry = createTelemetry();
+        var solution = new CommitteeSolution(UUID.randomUUID(),
+                SolverOptionsGenerator.ofSize(50, 0L).generate());
+        setTime(telemetry, 0);
+        telemetry.submitted(solution, new SolverOptions());
+        setTime(telemetry, 1_000);
+        telemetry.started(solution.id);
+
+        // the solver metrics of the job get its tags
+        meterRegistry.counter(SolverTelemetry.SCORE_CALCULATION_COUNT,
+                SolverMetricTags.PROBLEM_ID_TAG, solution.id.toString()).increment(6_000);
+
+        setTime(telemetry, 2_000);
+        solution.score = HardMediumSoftScore.of(-3, 0, 0);
+        telemetry.bestSolution(solution);
+        setTime(telemetry, 4_000);
+        solution.score = HardMediumSoftScore.of(0, -1, -10);
+        telemetry.bestSolution(solution);
+        setTime(telemetry, 5_000);
+        solution.score = HardMediumSoftScore.of(0, 0, -10);
+        telemetry.bestSolution(solution);
+
+        var result = telemetry.get(solution.id).get();
+        assertEquals(50, result.nbPersons);
+        assertEquals("<100", result.problemSize);
+        assertEquals(3, result.bestScores.size());
+        assertEquals(1_000, result.bestScores.get(0).timeMillis);
+        assertEquals(3_000L, result.timeToFeasibleMillis);
+        assertEquals(6_000L, result.scoreCalculationCount);
+        assertEquals(1_500L, result.scoreCalculationSpeed);
+
+        var tags = Tags.of(SolverTelemetry.PROBLEM_SIZE_TAG, result.problemSize,
+                SolverTelemetry.SETTINGS_PROFILE_TAG, result.settingsProfile);
+        assertNotNull(meterRegistry.find(SolverTelemetry.SCORE_CALCULATION_COUNT).tags(tags)
+                .counter());
+        var timer = meterRegistry.find(SolverTelemetry.TIME_TO_FEASIBLE).tags(tags).timer();
+        assertEquals(1, timer.count());
+        assertEquals(3_000.0, timer.totalTime(TimeUnit.MILLISECONDS));
+
+        setTime(telemetry, 6_000);
+        telemetry.finished(solution.id);
+        assertNotNull(telemetry.get(solution.id).get().endTime);
+        // the tags are not added to the metrics of another solve of the same problem
+        assertNull(telemetry.solverMetricTags.map(
+                meterRegistry.counter("other", SolverMetricTags.PROBLEM_ID_TAG,
+                        solution.id.toString()).getId())
+                .getTag(SolverTelemetry.PROBLEM_SIZE_TAG));
+    }
+
+    @Test
+    void problemSizeTest() {
+        assertEquals("<100", SolverTelemetry.problemSize(0));
+        assertEquals("<1000", SolverTelemetry.problemSize(100));
+        assertEquals("<10000", SolverTelemetry.problemSize(9_999));
+        assertEquals(">=10000", SolverTelemetry.problemSize(10_000));
+    }
+}
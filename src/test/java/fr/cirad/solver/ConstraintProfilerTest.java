@@ -0,0 +1,67 @@
+package fr.cirad.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.SolverOptionsGenerator;
+
+class ConstraintProfilerTest {
+
+    private static ConstraintProfile profile(long seed) {
+        var solution = new CommitteeSolution(UUID.randomUUID(),
+                SolverOptionsGenerator.ofSize(60, 0L).generate());
+        return new ConstraintProfiler(solution, 500, seed).profile();
+    }
+
+    @Test
+    void profileTest() {
+        var profile = profile(0L);
+        assertEquals(16, profile.constraints.size());
+        assertTrue(profile.constraints.stream()
+                .anyMatch(c -> c.constraint.equals("Non-reciprocity")));
+        for (int i = 1; i < profile.constraints.size(); i++) {
+            assertTrue(profile.constraints.get(i - 1).nanosPerMove >= profile.constraints
+                    .get(i).nanosPerMove);
+        }
+        assertEquals(1.0, profile.constraints.stream().mapToDouble(c -> c.share).sum(), 1e-9);
+
+        // the constraints alone are given the same moves as all the constraints
+        var score = profile.constraints.stream()
+                .map(c -> HardMediumSoftScore.parseScore(c.score))
+                .reduce(HardMediumSoftScore.ZERO, HardMediumSoftScore::add);
+        assertEquals(profile.score, score.toString());
+    }
+
+    @Test
+    void sameSeedTest() {
+        var matchCounts = profile(1L).constraints.stream()
+                .collect(Collectors.toMap(c -> c.constraint, c -> c.matchCount));
+        var otherMatchCounts = profile(1L).constraints.stream()
+                .collect(Collectors.toMap(c -> c.constraint, c -> c.matchCount));
+        assertEquals(matchCounts, otherMatchCounts);
+    }
+
+    @Test
+    void nothingToMoveTest() {
+        // no committee, only the assignments move
+        var options = SolverOptionsGenerator.ofSize(60, 0L).generate();
+        options.participants.forEach(p -> p.needsEvaluation = false);
+        var solution = new CommitteeSolution(UUID.randomUUID(), options);
+        assertTrue(solution.committees.isEmpty());
+        assertFalse(new ConstraintProfiler(solution, 100, 0L).profile().constraints.isEmpty());
+
+        // the pinned committees and assignments do not move
+        solution = new CommitteeSolution(UUID.randomUUID(),
+                SolverOptionsGenerator.ofSize(60, 0L).generate());
+        solution.committees.forEach(c -> c.pinned = true);
+        solution.committeeAssignments.forEach(a -> a.pinned = true);
+        var profile = new ConstraintProfiler(solution, 100, 0L).profile();
+        assertEquals(0, profile.nanosPerMove);
+        assertTrue(profile.constraints.stream().allMatch(c -> c.nanosPerMove == 0));
+    }
+}
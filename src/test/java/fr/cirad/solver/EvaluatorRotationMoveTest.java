@@ -0,0 +1,96 @@
+package fr.cirad.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.EnvironmentMode;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.SolverOptionsGenerator;
+import fr.cirad.domain.TestFixtures;
+
+class EvaluatorRotationMoveTest {
+
+    // The solver config of the server, with what Quarkus adds to it
+    private static SolverConfig solverConfig() {
+        return TestFixtures.withDomain(SolverConfig.createFromXmlResource("solverConfig.xml"));
+    }
+
+    private static CommitteeSolution createProblem() {
+        return new CommitteeSolution(UUID.randomUUID(),
+                SolverOptionsGenerator.ofSize(60, 0L).generate());
+    }
+
+    @Test
+    void rotationsKeepCompositionTest() {
+        var solverFactory = SolverFactory.<CommitteeSolution>create(solverConfig()
+                .withTerminationConfig(new TerminationConfig().withSpentLimit(Duration.ofSeconds(1))));
+        var solution = solverFactory.buildSolver().solve(createProblem());
+        var scoreDirectorFactory = ((DefaultSolverFactory<CommitteeSolution>) solverFactory)
+                .getScoreDirectorFactory();
+
+        for (int rotationSize = 2; rotationSize <= 3; rotationSize++) {
+            try (var scoreDirector = scoreDirectorFactory.buildScoreDirector()) {
+                scoreDirector.setWorkingSolution(solution);
+                var score = (HardMediumSoftScore) scoreDirector.calculateScore();
+                var factory = new EvaluatorRotationMoveIteratorFactory();
+                factory.setRotationSize(rotationSize);
+                factory.phaseStarted(scoreDirector);
+                var moves = factory.createRandomMoveIterator(scoreDirector, new Random(0L));
+                int nbDoableMoves = 0;
+                for (int i = 0; i < 100; i++) {
+                    var move = moves.next();
+                    if (!move.isMoveDoable(scoreDirector)) {
+                        continue;
+                    }
+                    nbDoableMoves++;
+                    var personTypes = move.getPlanningEntities().stream()
+                            .map(a -> a.assignedPerson.personType).distinct().count();
+                    assertEquals(1, personTypes);
+                    var compositions = compositions(solution);
+                    var undoMove = move.doMove(scoreDirector);
+                    assertEquals(compositions, compositions(solution));
+                    undoMove.doMove(scoreDirector);
+                    assertEquals(score, scoreDirector.calculateScore());
+                }
+                assertTrue(nbDoableMoves > 0);
+            }
+        }
+    }
+
+    private static HashMap<String, ArrayList<Integer>> compositions(CommitteeSolution solution) {
+        var compositions = new HashMap<String, ArrayList<Integer>>();
+        for (var committee : solution.committees) {
+            var composition = new ArrayList<Integer>();
+            composition.add(committee.nbProfessionals);
+            composition.add(committee.nbNonProfessionals);
+            composition.add(committee.assignments.size());
+            compositions.put(committee.id, composition);
+        }
+        return compositions;
+    }
+
+    @Test
+    void fullAssertSolveTest() {
+        // full assert checks the undo moves and the shadow variables after each move
+        var solverConfig = solverConfig().withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                .withTerminationConfig(
+                        new TerminationConfig().withSpentLimit(Duration.ofSeconds(3)));
+        var solution = SolverFactory.<CommitteeSolution>create(solverConfig).buildSolver()
+                .solve(createProblem());
+        assertTrue(solution.score.isSolutionInitialized());
+        var assigned = solution.committeeAssignments.stream().filter(a -> a.committee != null)
+                .collect(Collectors.toList());
+        assertTrue(!assigned.isEmpty());
+    }
+}
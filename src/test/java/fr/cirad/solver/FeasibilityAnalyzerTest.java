@@ -0,0 +1,93 @@
+package fr.cirad.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.Person;
+import fr.cirad.domain.PersonType;
+import fr.cirad.domain.Range;
+import fr.cirad.domain.Skill;
+import fr.cirad.domain.SolverOptions;
+import fr.cirad.domain.SolverOptionsGenerator;
+
+class FeasibilityAnalyzerTest {
+
+    private static SolverOptions generate() {
+        var generator = SolverOptionsGenerator.ofSize(60, 0L);
+        // the vetoes could remove all the follow up inspectors of a committee
+        generator.vetoDensity = 0;
+        return generator.generate();
+    }
+
+    private static FeasibilityReport analyze(SolverOptions options) {
+        return new FeasibilityAnalyzer(new CommitteeSolution(UUID.randomUUID(), options))
+                .analyze();
+    }
+
+    private static boolean hasDiagnostic(FeasibilityReport report, String constraint,
+            String person) {
+        return report.diagnostics.stream().anyMatch(d -> d.constraint.equals(constraint)
+                && (person == null || d.persons.contains(person)));
+    }
+
+    @Test
+    void generatedProblemTest() {
+        var report = analyze(generate());
+        assertTrue(report.feasible, report.diagnostics::toString);
+        assertEquals(List.of(), report.diagnostics);
+    }
+
+    @Test
+    void capacityTest() {
+        var options = generate();
+        options.settings.numberOfAssignmentsForAProfessional = new Range(1, 1);
+        var report = analyze(options);
+        assertFalse(report.feasible);
+        assertTrue(hasDiagnostic(report, "Min number of professional", null));
+    }
+
+    @Test
+    void skillCoverageAndAvailabilityTest() {
+        var options = generate();
+        var evaluated = options.participants.stream().filter(p -> p.needsEvaluation)
+                .findFirst().get();
+        evaluated.requiredSkills.add(new Skill("Rare skill"));
+        var notAvailable = options.participants.stream().filter(p -> p.needsEvaluation)
+                .skip(1).findFirst().get();
+        notAvailable.availability = new ArrayList<>();
+
+        var report = analyze(options);
+        assertFalse(report.feasible);
+        assertTrue(hasDiagnostic(report, "Required skills", evaluated.name));
+        assertTrue(hasDiagnostic(report, "Evaluated must be available for the meeting",
+                notAvailable.name));
+    }
+
+    @Test
+    void reciprocityTest() {
+        var options = generate();
+        var settings = options.settings;
+        settings.nbProParticipants = new Range(1, 1);
+        settings.nbNonProParticipants = new Range(0, 0);
+        settings.nbInspectorsFollowingUp = 0;
+        settings.useAvailability = false;
+        settings.committeeMeetingSize = new Range(1, 2);
+        options.participants = new ArrayList<>();
+        for (var name : List.of("Alice", "Bob")) {
+            var person = new Person(name, null);
+            person.personType = PersonType.PROFESSIONAL;
+            person.needsEvaluation = true;
+            options.participants.add(person);
+        }
+
+        var report = analyze(options);
+        assertFalse(report.feasible);
+        assertTrue(hasDiagnostic(report, "Non-reciprocity", "Alice"));
+        assertTrue(hasDiagnostic(report, "Non-reciprocity", "Bob"));
+    }
+}
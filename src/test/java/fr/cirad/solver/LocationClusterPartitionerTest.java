@@ -0,0 +1,131 @@
+package fr.cirad.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static fr.cirad.domain.TestFixtures.loadDefaultSolverOptions;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.EnvironmentMode;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.PersonType;
+import fr.cirad.domain.SolverOptionsGenerator;
+import fr.cirad.domain.TestFixtures;
+
+class LocationClusterPartitionerTest {
+
+    @Test
+    void splitTest() {
+        var solution = new CommitteeSolution(UUID.randomUUID(),
+                SolverOptionsGenerator.ofSize(1_000, 0L).generate());
+        // assign at random, so that some assignments are across clusters
+        var random = new Random(0L);
+        for (var assignment : solution.committeeAssignments) {
+            assignment.committee =
+                    solution.committees.get(random.nextInt(solution.committees.size()));
+            assignment.committee.assignments.add(assignment);
+        }
+
+        var partitioner = new LocationClusterPartitioner();
+        partitioner.setPartitionCount(4);
+        var parts = partitioner.split(solution);
+        assertEquals(4, parts.size());
+
+        var committeeIds = new HashSet<String>();
+        var assignmentIds = new HashSet<Long>();
+        var partOfPerson = new HashMap<String, Integer>();
+        int nbMeetings = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            var part = parts.get(i);
+            assertFalse(part.committees.isEmpty());
+            assertSame(solution.timeSlots, part.timeSlots);
+            nbMeetings += part.settings.committeeMeetingSize.getMax();
+            for (var person : part.persons) {
+                partOfPerson.put(person.name, i);
+            }
+            for (var committee : part.committees) {
+                assertTrue(committeeIds.add(committee.id));
+            }
+            for (var assignment : part.committeeAssignments) {
+                assertTrue(assignmentIds.add(assignment.id));
+                if (assignment.committee != null) {
+                    assertTrue(part.committees.contains(assignment.committee));
+                }
+                // the range of the person copy of the part gives the committees of the part
+                for (var committee : assignment.getCommitteeRange()) {
+                    assertTrue(part.committees.stream().anyMatch(c -> c == committee));
+                }
+            }
+        }
+        // the persons of the solution keep their ranges
+        for (var assignment : solution.committeeAssignments) {
+            for (var committee : assignment.getCommitteeRange()) {
+                assertTrue(solution.committees.stream().anyMatch(c -> c == committee));
+            }
+        }
+        assertEquals(solution.committees.size(), committeeIds.size());
+        assertEquals(solution.committeeAssignments.size(), assignmentIds.size());
+        assertTrue(nbMeetings >= solution.settings.committeeMeetingSize.getMax());
+
+        // the assignments across parts are left unassigned
+        for (var part : parts) {
+            for (var assignment : part.committeeAssignments) {
+                var original = solution.committeeAssignments.stream()
+                        .filter(a -> a.id.equals(assignment.id)).findFirst().get();
+                boolean samePart = partOfPerson.get(original.assignedPerson.name)
+                        .equals(partOfPerson.get(original.committee.evaluatedPerson.name));
+                if (samePart) {
+                    assertEquals(original.committee.id, assignment.committee.id);
+                } else {
+                    assertNull(assignment.committee);
+                }
+            }
+        }
+    }
+
+    @Test
+    void singlePartTest() throws IOException {
+        var solution = new CommitteeSolution(UUID.randomUUID(), loadDefaultSolverOptions());
+        var partitioner = new LocationClusterPartitioner();
+        partitioner.setPartitionCount(1);
+        var parts = partitioner.split(solution);
+        assertEquals(1, parts.size());
+        assertEquals(solution.committees.size(), parts.get(0).committees.size());
+    }
+
+    @Test
+    void partitionedSolveTest() throws IOException {
+        // FULL_ASSERT checks the parts and the merged solution scores, with the phases and the
+        // best score limit of the server
+        var baseConfig = TestFixtures
+                .withDomain(SolverConfig.createFromXmlResource("solverConfig.xml"))
+                .withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                .withTerminationConfig(new TerminationConfig().withSpentLimit(Duration.ofSeconds(10))
+                        .withUnimprovedSpentLimit(Duration.ofSeconds(1))
+                        .withBestScoreLimit("0hard/0medium/*soft"));
+        var solverConfig = SolverManagerRegistry.withSolvingMode(baseConfig, 1, 2);
+        var problem = new CommitteeSolution(UUID.randomUUID(), loadDefaultSolverOptions());
+        var solution = SolverFactory.<CommitteeSolution>create(solverConfig).buildSolver()
+                .solve(problem);
+
+        assertNotNull(solution.score);
+        assertTrue(solution.score.isSolutionInitialized());
+        for (var committee : solution.committees) {
+            var nbProfessionals = (int) committee.assignments.stream()
+                    .filter(a -> a.assignedPerson.personType.equals(PersonType.PROFESSIONAL))
+                    .count();
+            assertEquals(nbProfessionals, committee.nbProfessionals);
+        }
+    }
+}
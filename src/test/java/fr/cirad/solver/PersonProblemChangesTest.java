@@ -0,0 +1,89 @@
+package fr.cirad.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.ScoreManager;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.EnvironmentMode;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.InitialAssignment;
+import fr.cirad.domain.SolverOptionsGenerator;
+import fr.cirad.domain.TestFixtures;
+
+class PersonProblemChangesTest {
+
+    @Test
+    void personChangesWhileSolvingTest() {
+        var options = SolverOptionsGenerator.ofSize(31, 0L).generate();
+        // the last person joins while solving
+        var newPerson = options.participants.remove(options.participants.size() - 1);
+        var removed = options.participants.get(0);
+        var pinnedPerson = options.participants.get(1);
+        var evaluated = options.participants.stream().filter(p -> p.needsEvaluation)
+                .filter(p -> p != removed && p != pinnedPerson).findFirst().get();
+        var changed = options.participants.stream().filter(p -> !p.needsEvaluation)
+                .filter(p -> p != removed && p != pinnedPerson).findFirst().get();
+        options.initialAssignments = List.of(
+                new InitialAssignment(pinnedPerson.name, evaluated.name, null, true));
+        var problem = new CommitteeSolution(UUID.randomUUID(), options);
+
+        // full assert checks the score after each change
+        var solverConfig = TestFixtures.solverConfig()
+                .withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                .withTerminationConfig(
+                        new TerminationConfig().withSpentLimit(Duration.ofSeconds(4)));
+        var solverFactory = SolverFactory.<CommitteeSolution>create(solverConfig);
+        var solver = solverFactory.buildSolver();
+        var changesAdded = new AtomicBoolean();
+        solver.addEventListener(event -> {
+            if (event.getNewBestSolution().score.isSolutionInitialized()
+                    && !changesAdded.getAndSet(true)) {
+                solver.addProblemChanges(List.of(PersonProblemChanges.addPerson(newPerson),
+                        PersonProblemChanges.removePerson(removed.name.toUpperCase()),
+                        PersonProblemChanges.setNeedsEvaluation(changed.name, true),
+                        PersonProblemChanges.setVetoes(changed.name, List.of(newPerson.name)),
+                        PersonProblemChanges.setAvailability(changed.name,
+                                List.of("New time slot"))));
+            }
+        });
+        var solution = solver.solve(problem);
+        assertTrue(changesAdded.get());
+
+        assertEquals(31 - 1, solution.persons.size());
+        assertTrue(solution.persons.stream().noneMatch(p -> p.name.equals(removed.name)));
+        assertTrue(solution.committees.stream()
+                .noneMatch(c -> c.evaluatedPerson.name.equals(removed.name)));
+        assertTrue(solution.committeeAssignments.stream()
+                .noneMatch(a -> a.assignedPerson.name.equals(removed.name)));
+        assertTrue(solution.committeeAssignments.stream()
+                .anyMatch(a -> a.assignedPerson.name.equals(newPerson.name)));
+        assertTrue(solution.committees.stream()
+                .anyMatch(c -> c.evaluatedPerson.name.equals(changed.name)));
+        var changedPerson = PersonProblemChanges.getPerson(solution, changed.name);
+        assertTrue(changedPerson.isVetoed(PersonProblemChanges.getPerson(solution, newPerson.name)));
+        assertTrue(solution.timeSlots.stream().anyMatch(t -> t.name.equals("New time slot")));
+
+        // the pinned assignment is kept
+        var pinned = solution.committeeAssignments.stream().filter(a -> a.pinned).findFirst()
+                .get();
+        assertEquals(evaluated.name, pinned.committee.evaluatedPerson.name);
+
+        // the committees agree with their assignments and the score with the solution
+        for (var committee : solution.committees) {
+            for (var assignment : committee.assignments) {
+                assertEquals(committee, assignment.committee);
+            }
+        }
+        assertFalse(solution.committeeAssignments.stream().anyMatch(
+                a -> a.committee != null && !a.committee.assignments.contains(a)));
+        var score = solution.score;
+        assertEquals(score, ScoreManager.create(solverFactory).updateScore(solution));
+    }
+}
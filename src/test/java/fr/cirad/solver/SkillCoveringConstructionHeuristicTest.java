@@ -0,0 +1,77 @@
+package fr.cirad.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static fr.cirad.domain.TestFixtures.solverConfig;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.constructionheuristic.placer.QueuedEntityPlacerConfig;
+import org.optaplanner.core.config.heuristic.selector.entity.EntitySelectorConfig;
+import org.optaplanner.core.config.phase.custom.CustomPhaseConfig;
+import org.optaplanner.core.config.solver.EnvironmentMode;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.SolverOptionsGenerator;
+
+class SkillCoveringConstructionHeuristicTest {
+
+    private static CommitteeSolution createProblem() {
+        return new CommitteeSolution(UUID.randomUUID(),
+                SolverOptionsGenerator.ofSize(60, 0L).generate());
+    }
+
+    private static ConstructionHeuristicPhaseConfig constructionHeuristic(Class<?> entityClass) {
+        var entitySelectorConfig = new EntitySelectorConfig(entityClass);
+        entitySelectorConfig.setId(entityClass.getName());
+        var entityPlacerConfig = new QueuedEntityPlacerConfig();
+        entityPlacerConfig.setEntitySelectorConfig(entitySelectorConfig);
+        return new ConstructionHeuristicPhaseConfig().withEntityPlacerConfig(entityPlacerConfig);
+    }
+
+    @Test
+    void fillsCompositionsTest() {
+        // full assert checks the shadow variables after the phase
+        var solverConfig = solverConfig().withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                .withPhases(new CustomPhaseConfig().withCustomPhaseCommandClassList(
+                        List.of(SkillCoveringConstructionHeuristic.class)));
+        var solution = SolverFactory.<CommitteeSolution>create(solverConfig).buildSolver()
+                .solve(createProblem());
+
+        var settings = solution.settings;
+        for (var committee : solution.committees) {
+            assertTrue(committee.timeSlot != null);
+            assertTrue(committee.hasCorrectNumberOfMinProfessionalPersons(), committee.id);
+            assertTrue(committee.hasCorrectNumberOfMinNonProfessionalPersons(), committee.id);
+            assertEquals(settings.nbProParticipants.getMin()
+                    + settings.nbNonProParticipants.getMin(), committee.assignments.size());
+            assertEquals(0, committee.nbDuplicatedEvaluators);
+            assertTrue(committee.assignments.stream()
+                    .noneMatch(a -> a.assignedPerson.equals(committee.evaluatedPerson)));
+        }
+    }
+
+    @Test
+    void betterThanDefaultConstructionTest() {
+        var custom = SolverFactory.<CommitteeSolution>create(solverConfig()
+                .withPhases(new CustomPhaseConfig().withCustomPhaseCommandClassList(
+                        List.of(SkillCoveringConstructionHeuristic.class))))
+                .buildSolver().solve(createProblem());
+        // like the default phases, a construction heuristic for each entity class
+        var standard = SolverFactory.<CommitteeSolution>create(solverConfig().withPhases(
+                constructionHeuristic(Committee.class),
+                constructionHeuristic(CommitteeAssignment.class)))
+                .buildSolver().solve(createProblem());
+        var customScore = (HardMediumSoftScore) custom.score;
+        var standardScore = (HardMediumSoftScore) standard.score;
+        // all the constraints are hard, the medium and soft scores stay 0
+        assertEquals(HardMediumSoftScore.ofHard(customScore.getHardScore()), customScore);
+        assertEquals(HardMediumSoftScore.ofHard(standardScore.getHardScore()), standardScore);
+        assertTrue(customScore.getHardScore() > standardScore.getHardScore(),
+                customScore + " <= " + standardScore);
+    }
+}
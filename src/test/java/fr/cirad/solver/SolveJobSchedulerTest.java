@@ -0,0 +1,134 @@
+package fr.cirad.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import fr.cirad.domain.SolverOptions;
+
+class SolveJobSchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2022-01-01T00:00:00Z");
+
+    private final List<UUID> startedJobs = new ArrayList<>();
+
+    private SolveJobScheduler createScheduler(int maxConcurrentSolves, int maxQueueSize) {
+        var scheduler = new SolveJobScheduler();
+        scheduler.maxConcurrentSolves = maxConcurrentSolves;
+        scheduler.maxQueueSize = maxQueueSize;
+        scheduler.solverConfig = new SolverConfig().withTerminationConfig(
+                new TerminationConfig().withSpentLimit(Duration.ofMinutes(5)));
+        scheduler.log = Logger.getLogger(SolveJobScheduler.class);
+        scheduler.clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        return scheduler;
+    }
+
+    private UUID submit(SolveJobScheduler scheduler, String clientId, Integer priority) {
+        var options = new SolverOptions();
+        options.clientId = clientId;
+        options.priority = priority;
+        var id = UUID.randomUUID();
+        assertTrue(scheduler.submit(id, options, () -> startedJobs.add(id)));
+        return id;
+    }
+
+    @Test
+    void concurrencyLimitTest() {
+        var scheduler = createScheduler(2, 1);
+        var first = submit(scheduler, "a", null);
+        var second = submit(scheduler, "a", null);
+        var third = submit(scheduler, "a", null);
+        assertEquals(List.of(first, second), startedJobs);
+        assertTrue(scheduler.isScheduled(third));
+        assertFalse(scheduler.isScheduled(first));
+
+        // the queue is full
+        assertFalse(scheduler.submit(UUID.randomUUID(), new SolverOptions(), () -> {
+        }));
+
+        assertTrue(scheduler.finished(first));
+        assertEquals(List.of(first, second, third), startedJobs);
+        assertFalse(scheduler.isScheduled(third));
+
+        // a job is finished once, by the first of its final solution and its early termination
+        assertFalse(scheduler.finished(first));
+        assertEquals(2, scheduler.getNbRunningJobs());
+    }
+
+    @Test
+    void priorityAndFairShareTest() {
+        var scheduler = createScheduler(1, 10);
+        var running = submit(scheduler, "a", null);
+        var secondOfA = submit(scheduler, "a", null);
+        var firstOfB = submit(scheduler, "b", null);
+        var urgentOfA = submit(scheduler, "a", 1);
+        var thirdOfA = submit(scheduler, "a", null);
+
+        // the higher priority first, then the client with the fewest solving jobs
+        assertEquals(0, scheduler.getScheduledStart(urgentOfA).get().position);
+        assertEquals(1, scheduler.getScheduledStart(firstOfB).get().position);
+        assertEquals(2, scheduler.getScheduledStart(secondOfA).get().position);
+        assertEquals(3, scheduler.getScheduledStart(thirdOfA).get().position);
+        assertTrue(scheduler.getScheduledStart(running).isEmpty());
+
+        // each job is expected to last the spent limit
+        assertEquals(NOW.plus(Duration.ofMinutes(5)),
+                scheduler.getScheduledStart(urgentOfA).get().estimatedStartTime);
+        assertEquals(NOW.plus(Duration.ofMinutes(20)),
+                scheduler.getScheduledStart(thirdOfA).get().estimatedStartTime);
+
+        assertTrue(scheduler.cancel(firstOfB));
+        assertFalse(scheduler.cancel(running));
+        scheduler.finished(running);
+        scheduler.finished(urgentOfA);
+        assertEquals(List.of(running, urgentOfA, secondOfA), startedJobs);
+    }
+
+    @Test
+    void submitAllTest() {
+        var scheduler = createScheduler(1, 2);
+        var running = submit(scheduler, "a", null);
+        var batch = new LinkedHashMap<UUID, SolverOptions>();
+        for (int i = 0; i < 3; i++) {
+            batch.put(UUID.randomUUID(), new SolverOptions());
+        }
+        // none of the batch is queued when the queue can not hold all of it
+        assertFalse(scheduler.submitAll(batch, id -> () -> startedJobs.add(id)));
+        assertEquals(0, scheduler.getNbQueuedJobs());
+
+        batch.remove(batch.keySet().iterator().next());
+        assertTrue(scheduler.submitAll(batch, id -> () -> startedJobs.add(id)));
+        var ids = new ArrayList<>(batch.keySet());
+        scheduler.finished(running);
+        assertEquals(List.of(running, ids.get(0)), startedJobs);
+        scheduler.finished(ids.get(0));
+        assertEquals(List.of(running, ids.get(0), ids.get(1)), startedJobs);
+    }
+
+    @Test
+    void priorityRangeTest() {
+        var scheduler = createScheduler(1, 10);
+        submit(scheduler, "a", null);
+        var lowest = submit(scheduler, "a", Integer.MIN_VALUE);
+        var normal = submit(scheduler, "a", null);
+        var highest = submit(scheduler, "a", Integer.MAX_VALUE);
+        var high = submit(scheduler, "a", SolveJobScheduler.MAX_PRIORITY);
+
+        // the priorities are clamped, the lowest one starts last
+        assertEquals(0, scheduler.getScheduledStart(highest).get().position);
+        assertEquals(1, scheduler.getScheduledStart(high).get().position);
+        assertEquals(2, scheduler.getScheduledStart(normal).get().position);
+        assertEquals(3, scheduler.getScheduledStart(lowest).get().position);
+    }
+}
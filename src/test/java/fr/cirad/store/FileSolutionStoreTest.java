@@ -0,0 +1,238 @@
+package fr.cirad.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.InitialAssignment;
+import fr.cirad.domain.SolverOptionsGenerator;
+
+class FileSolutionStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private FileSolutionStore createStore(long maxBytes) {
+        var mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return new FileSolutionStore(directory, maxBytes, mapper);
+    }
+
+    private CommitteeSolution createSolution(SolutionStore store) {
+        var id = UUID.randomUUID();
+        var options = SolverOptionsGenerator.ofSize(200, 0L).generate();
+        store.saveProblem(id, options);
+        var solution = new CommitteeSolution(id, options);
+        var random = new Random(0L);
+        for (var committee : solution.committees) {
+            committee.timeSlot = solution.timeSlots.get(random.nextInt(solution.timeSlots.size()));
+        }
+        for (var assignment : solution.committeeAssignments) {
+            if (random.nextBoolean()) {
+                assignment.committee =
+                        solution.committees.get(random.nextInt(solution.committees.size()));
+                assignment.committee.assignments.add(assignment);
+            }
+        }
+        solution.committees.forEach(c -> c.resetComposition());
+        solution.score = HardMediumSoftScore.of(-3, -2, -1);
+        store.save(solution);
+        return solution;
+    }
+
+    @Test
+    void solutionSurvivesRestartTest() throws IOException {
+        var solution = createSolution(createStore(1L << 30));
+
+        var loaded = createStore(1L << 30).find(solution.id).get();
+        assertNotSame(solution, loaded);
+        assertEquals(solution.version, loaded.version);
+        assertEquals(solution.score, loaded.score);
+        assertEquals(solution.committeeAssignments.size(), loaded.committeeAssignments.size());
+        for (int i = 0; i < solution.committeeAssignments.size(); i++) {
+            var assignment = solution.committeeAssignments.get(i);
+            var loadedAssignment = loaded.committeeAssignments.get(i);
+            assertEquals(assignment.assignedPerson.name, loadedAssignment.assignedPerson.name);
+            if (assignment.committee == null) {
+                assertEquals(null, loadedAssignment.committee);
+            } else {
+                assertEquals(assignment.committee.id, loadedAssignment.committee.id);
+                assertEquals(assignment.committee.timeSlot.name,
+                        loadedAssignment.committee.timeSlot.name);
+                assertTrue(loaded.timeSlots.contains(loadedAssignment.committee.timeSlot));
+            }
+        }
+        for (int i = 0; i < solution.committees.size(); i++) {
+            assertEquals(solution.committees.get(i).nbProfessionals,
+                    loaded.committees.get(i).nbProfessionals);
+        }
+    }
+
+    @Test
+    void initialAssignmentsAreRestoredTest() {
+        // too small to keep any solution in memory
+        var store = createStore(1L);
+        var id = UUID.randomUUID();
+        var options = SolverOptionsGenerator.ofSize(200, 0L).generate();
+        options.settings.shuffleParticipants = true;
+        var evaluated = options.participants.stream()
+                .filter(p -> Boolean.TRUE.equals(p.needsEvaluation)).collect(Collectors.toList());
+        options.initialAssignments = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            options.initialAssignments.add(new InitialAssignment(options.participants.get(i).name,
+                    evaluated.get((i + 1) % evaluated.size()).name, null, i % 2 == 0));
+        }
+        store.saveProblem(id, options);
+
+        // the solver moved the assignments which are not pinned
+        var solution = new CommitteeSolution(id, options);
+        var random = new Random(0L);
+        for (var assignment : solution.committeeAssignments) {
+            if (assignment.committee != null && !assignment.pinned) {
+                assignment.committee.assignments.remove(assignment);
+                assignment.committee =
+                        solution.committees.get(random.nextInt(solution.committees.size()));
+                assignment.committee.assignments.add(assignment);
+            }
+        }
+        solution.committees.forEach(Committee::resetComposition);
+        store.save(solution);
+
+        var loaded = store.find(id).get();
+        assertNotSame(solution, loaded);
+        assertEquals(solution.committeeAssignments.size(), loaded.committeeAssignments.size());
+        for (int i = 0; i < solution.committeeAssignments.size(); i++) {
+            var assignment = solution.committeeAssignments.get(i);
+            var loadedAssignment = loaded.committeeAssignments.get(i);
+            assertEquals(assignment.id, loadedAssignment.id);
+            assertEquals(assignment.assignedPerson.name, loadedAssignment.assignedPerson.name);
+            assertEquals(assignment.pinned, loadedAssignment.pinned);
+            if (assignment.committee == null) {
+                assertNull(loadedAssignment.committee);
+            } else {
+                assertEquals(assignment.committee.id, loadedAssignment.committee.id);
+            }
+        }
+        // no committee keeps an initial assignment that was moved
+        for (var committee : loaded.committees) {
+            var assignmentIds = loaded.committeeAssignments.stream()
+                    .filter(a -> a.committee == committee).map(a -> a.id).sorted()
+                    .collect(Collectors.toList());
+            assertEquals(assignmentIds, committee.assignments.stream().map(a -> a.id).sorted()
+                    .collect(Collectors.toList()));
+            var original = solution.getCommitteeByEvaluatedPersonName(committee.id).get();
+            assertEquals(original.nbProfessionals, committee.nbProfessionals);
+            assertEquals(original.nbNonProfessionals, committee.nbNonProfessionals);
+        }
+    }
+
+    @Test
+    void evictedSolutionIsLoadedTest() {
+        // too small to keep any solution in memory
+        var store = createStore(1L);
+        var solution = createSolution(store);
+        var loaded = store.find(solution.id).get();
+        assertNotSame(solution, loaded);
+        assertEquals(solution.version, loaded.version);
+        assertTrue(store.find(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void versionsFollowEvictionsAndRestartsTest() {
+        // too small to keep any solution in memory
+        var store = createStore(1L);
+        var solution = createSolution(store);
+        assertEquals(0, solution.version);
+        // the best solutions of the solver are clones, with the version of the problem
+        var bestSolution = store.find(solution.id).get();
+        bestSolution.version = 0;
+        store.save(bestSolution);
+        assertEquals(1, bestSolution.version);
+        store.save(bestSolution);
+        assertEquals(2, bestSolution.version);
+
+        var restartedStore = createStore(1L);
+        bestSolution.version = 0;
+        restartedStore.save(bestSolution);
+        assertEquals(3, bestSolution.version);
+        assertEquals(3, restartedStore.find(solution.id).get().version);
+    }
+
+    @Test
+    void updatedProblemIsLoadedTest() {
+        var store = createStore(1L);
+        var solution = createSolution(store);
+        var removed = solution.persons.get(0).name;
+        store.updateProblem(solution.id,
+                options -> options.participants.removeIf(p -> p.name.equals(removed)));
+
+        // the assignments of the other persons are restored
+        var loaded = store.find(solution.id).get();
+        assertEquals(solution.persons.size() - 1, loaded.persons.size());
+        var assignedPersons = solution.committeeAssignments.stream()
+                .filter(a -> a.committee != null && !a.assignedPerson.name.equals(removed)
+                        && !a.committee.id.equals(removed))
+                .map(a -> a.assignedPerson.name + "/" + a.committee.id).sorted()
+                .collect(Collectors.toList());
+        var loadedAssignedPersons = loaded.committeeAssignments.stream()
+                .filter(a -> a.committee != null)
+                .map(a -> a.assignedPerson.name + "/" + a.committee.id).sorted()
+                .collect(Collectors.toList());
+        assertEquals(assignedPersons, loadedAssignedPersons);
+    }
+
+    @Test
+    void deletedSolutionIsNotLoadedTest() {
+        var store = createStore(1L << 30);
+        var solution = createSolution(store);
+        store.delete(solution.id);
+        assertTrue(store.find(solution.id).isEmpty());
+        assertFalse(Files.exists(directory.resolve(solution.id.toString())));
+    }
+
+    private void setLastSaved(UUID id, Instant time) throws IOException {
+        try (var files = Files.walk(directory.resolve(id.toString()))) {
+            for (var file : files.collect(Collectors.toList())) {
+                Files.setLastModifiedTime(file, FileTime.from(time));
+            }
+        }
+    }
+
+    @Test
+    void expiredSolutionsAreDeletedTest() throws IOException {
+        var store = createStore(1L << 30);
+        var expired = createSolution(store);
+        var solving = createSolution(store);
+        var recent = createSolution(store);
+        var now = Instant.now();
+        setLastSaved(expired.id, now.minus(Duration.ofDays(40)));
+        setLastSaved(solving.id, now.minus(Duration.ofDays(40)));
+        Files.createDirectories(directory.resolve("not-a-solution"));
+
+        store.deleteSavedBefore(now.minus(Duration.ofDays(30)), solving.id::equals);
+        assertTrue(store.find(expired.id).isEmpty());
+        assertFalse(Files.exists(directory.resolve(expired.id.toString())));
+        assertTrue(store.find(solving.id).isPresent());
+        assertTrue(store.find(recent.id).isPresent());
+        assertTrue(Files.exists(directory.resolve("not-a-solution")));
+    }
+}